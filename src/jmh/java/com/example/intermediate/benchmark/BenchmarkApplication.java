@@ -0,0 +1,95 @@
+package com.example.intermediate.benchmark;
+
+import com.example.intermediate.IntermediateApplication;
+import com.example.intermediate.domain.Comment;
+import com.example.intermediate.domain.Member;
+import com.example.intermediate.domain.Post;
+import com.example.intermediate.domain.Recomment;
+import com.example.intermediate.repository.CommentRepository;
+import com.example.intermediate.repository.MemberRepository;
+import com.example.intermediate.repository.PostRepository;
+import com.example.intermediate.repository.RecommentRepository;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// 벤치마크용 애플리케이션 (내장 H2, 운영과 비슷한 규모의 데이터)
+final class BenchmarkApplication {
+
+  static final int MEMBERS = 1_000;
+  static final int POSTS = 10_000;
+  static final int COMMENTS_PER_POST = 3;
+  static final int RECOMMENTS_PER_COMMENT = 1;
+  static final String PASSWORD = "benchmark-password";
+
+  private static final int CHUNK_SIZE = 1_000;
+
+  private BenchmarkApplication() {
+  }
+
+  static ConfigurableApplicationContext start() {
+    ConfigurableApplicationContext context = new SpringApplicationBuilder(IntermediateApplication.class).run();
+    seed(context);
+    return context;
+  }
+
+  static String nickname(int index) {
+    return "bench" + index;
+  }
+
+  private static void seed(ConfigurableApplicationContext context) {
+    MemberRepository memberRepository = context.getBean(MemberRepository.class);
+    PostRepository postRepository = context.getBean(PostRepository.class);
+    CommentRepository commentRepository = context.getBean(CommentRepository.class);
+    RecommentRepository recommentRepository = context.getBean(RecommentRepository.class);
+
+    // BCrypt 는 한 번만
+    String password = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+    List<Member> members = new ArrayList<>();
+    for (int i = 0; i < MEMBERS; i++) {
+      members.add(Member.builder().nickname(nickname(i)).password(password).build());
+    }
+    memberRepository.saveAll(members);
+
+    List<Post> posts = new ArrayList<>();
+    List<Comment> comments = new ArrayList<>();
+    List<Recomment> recomments = new ArrayList<>();
+    for (int i = 0; i < POSTS; i++) {
+      Post post = Post.builder()
+          .title("title " + i)
+          .content("content ".repeat(20))
+          .member(members.get(i % MEMBERS))
+          .commentsNum(COMMENTS_PER_POST)
+          .build();
+      posts.add(post);
+      for (int j = 0; j < COMMENTS_PER_POST; j++) {
+        Comment comment = Comment.builder()
+            .post(post)
+            .member(members.get((i + j + 1) % MEMBERS))
+            .content("comment " + j)
+            .recommentsNum(RECOMMENTS_PER_COMMENT)
+            .build();
+        comments.add(comment);
+        for (int k = 0; k < RECOMMENTS_PER_COMMENT; k++) {
+          recomments.add(Recomment.builder()
+              .post(post)
+              .comment(comment)
+              .member(members.get((i + j + k + 2) % MEMBERS))
+              .content("recomment " + k)
+              .build());
+        }
+      }
+
+      if (posts.size() == CHUNK_SIZE || i == POSTS - 1) {
+        postRepository.saveAll(posts);
+        commentRepository.saveAll(comments);
+        recommentRepository.saveAll(recomments);
+        posts.clear();
+        comments.clear();
+        recomments.clear();
+      }
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package com.example.intermediate.benchmark;
+
+import com.example.intermediate.controller.request.LoginRequestDto;
+import com.example.intermediate.controller.response.ResponseDto;
+import com.example.intermediate.service.MemberService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// 로그인 비용 중 BCrypt 가 차지하는 비중
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberLoginBenchmark {
+
+  private ConfigurableApplicationContext context;
+  private MemberService memberService;
+  private PasswordEncoder passwordEncoder;
+  private String encodedPassword;
+  private LoginRequestDto loginRequestDto;
+
+  @Setup
+  public void setUp() {
+    context = BenchmarkApplication.start();
+    memberService = context.getBean(MemberService.class);
+    passwordEncoder = context.getBean(PasswordEncoder.class);
+    encodedPassword = passwordEncoder.encode(BenchmarkApplication.PASSWORD);
+    loginRequestDto = new LoginRequestDto(BenchmarkApplication.nickname(0), BenchmarkApplication.PASSWORD);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public boolean passwordMatches() {
+    return passwordEncoder.matches(BenchmarkApplication.PASSWORD, encodedPassword);
+  }
+
+  @Benchmark
+  public ResponseDto<?> login() {
+    return memberService.login(loginRequestDto, new MockHttpServletResponse());
+  }
+}
@@ -0,0 +1,65 @@
+package com.example.intermediate.benchmark;
+
+import com.example.intermediate.controller.request.MypageRequestDto;
+import com.example.intermediate.controller.response.mypage.ResponseMypageDto;
+import com.example.intermediate.domain.Member;
+import com.example.intermediate.repository.MemberRepository;
+import com.example.intermediate.service.MypageReader;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// 마이페이지 한 페이지 조회 (목록마다 projection 쿼리 한 번)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MypageBenchmark {
+
+  @Param({"5", "20"})
+  private int size;
+
+  private ConfigurableApplicationContext context;
+  private MypageReader mypageReader;
+  private Long memberId;
+  private MypageRequestDto pageRequest;
+
+  @Setup
+  public void setUp() {
+    context = BenchmarkApplication.start();
+    mypageReader = context.getBean(MypageReader.class);
+    Member member = context.getBean(MemberRepository.class)
+        .findByNickname(BenchmarkApplication.nickname(0)).orElseThrow();
+    memberId = member.getId();
+    pageRequest = new MypageRequestDto();
+    pageRequest.setSize(size);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public ResponseMypageDto writes() {
+    return mypageReader.readWrites(memberId, pageRequest);
+  }
+
+  @Benchmark
+  public ResponseMypageDto likes() {
+    return mypageReader.readLikes(memberId, pageRequest);
+  }
+}
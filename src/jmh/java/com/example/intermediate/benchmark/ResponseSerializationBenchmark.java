@@ -0,0 +1,159 @@
+package com.example.intermediate.benchmark;
+
+import com.example.intermediate.controller.response.CommentResponseDto;
+import com.example.intermediate.controller.response.PostResponseDto;
+import com.example.intermediate.controller.response.RecommentResponseDto;
+import com.example.intermediate.controller.response.ResponseDto;
+import com.example.intermediate.controller.response.SerializedResponseCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+// 게시글 상세(댓글/대댓글 트리) 응답의 Jackson 직렬화 비용과 직렬화된 바이트 캐시로 출력하는 비용
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+  @Param({"10", "100", "1000"})
+  private int comments;
+
+  @Param({"10"})
+  private int recommentsPerComment;
+
+  private ObjectMapper objectMapper;
+  private ResponseDto<PostResponseDto> response;
+  private SerializedResponseCache uncachedResponses;
+  private SerializedResponseCache cachedResponses;
+
+  @Setup
+  public void setUp() {
+    // 스프링 부트 기본 설정과 같게
+    objectMapper = Jackson2ObjectMapperBuilder.json()
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+
+    LocalDateTime now = LocalDateTime.now();
+    List<CommentResponseDto> commentList = new ArrayList<>();
+    for (long i = 0; i < comments; i++) {
+      List<RecommentResponseDto> recommentList = new ArrayList<>();
+      for (long j = 0; j < recommentsPerComment; j++) {
+        recommentList.add(RecommentResponseDto.builder()
+            .id(i * recommentsPerComment + j)
+            .author("member" + j)
+            .content("recomment content " + j)
+            .likesNum((int) j)
+            .createdAt(now)
+            .modifiedAt(now)
+            .build());
+      }
+      commentList.add(CommentResponseDto.builder()
+          .id(i)
+          .author("member" + i)
+          .content("comment content " + i)
+          .likesNum((int) i)
+          .recommentResponseDtoList(recommentList)
+          .createdAt(now)
+          .modifiedAt(now)
+          .build());
+    }
+    response = ResponseDto.success(PostResponseDto.builder()
+        .id(1L)
+        .title("title")
+        .content("content ".repeat(100))
+        .author("author")
+        .likesNum(comments)
+        .commentResponseDtoList(commentList)
+        .createdAt(now)
+        .modifiedAt(now)
+        .build());
+
+    uncachedResponses = createResponseCache(false);
+    cachedResponses = createResponseCache(true);
+  }
+
+  @Benchmark
+  public byte[] serialize() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(response);
+  }
+
+  // 컨트롤러 출력 경로, 캐시하지 않으면 매번 직렬화
+  @Benchmark
+  public long writeSerialized() throws IOException {
+    DiscardingResponse servletResponse = new DiscardingResponse();
+    uncachedResponses.writePost(response, new MockHttpServletRequest("GET", "/api/post/1"), servletResponse);
+    return servletResponse.written;
+  }
+
+  @Benchmark
+  public long writeCached() throws IOException {
+    DiscardingResponse servletResponse = new DiscardingResponse();
+    cachedResponses.writePost(response, new MockHttpServletRequest("GET", "/api/post/1"), servletResponse);
+    return servletResponse.written;
+  }
+
+  private SerializedResponseCache createResponseCache(boolean enabled) {
+    SerializedResponseCache responseCache = new SerializedResponseCache(objectMapper, new SimpleMeterRegistry());
+    ReflectionTestUtils.setField(responseCache, "enabled", enabled);
+    ReflectionTestUtils.setField(responseCache, "maxSize", 100L);
+    ReflectionTestUtils.setField(responseCache, "feedTtlSeconds", 5L);
+    ReflectionTestUtils.setField(responseCache, "gzipMinBytes", Integer.MAX_VALUE);
+    responseCache.init();
+    return responseCache;
+  }
+
+  // 소켓처럼 한 번에 받아서 버린다 (MockHttpServletResponse 는 1 byte 씩 복사)
+  private static class DiscardingResponse extends MockHttpServletResponse {
+    private long written;
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+      return new ServletOutputStream() {
+        @Override
+        public void write(int b) {
+          written++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+          written += len;
+        }
+
+        @Override
+        public boolean isReady() {
+          return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package com.example.intermediate.benchmark;
+
+import com.example.intermediate.controller.request.TokenDto;
+import com.example.intermediate.domain.Member;
+import com.example.intermediate.jwt.JwtFilter;
+import com.example.intermediate.jwt.TokenProvider;
+import com.example.intermediate.repository.MemberRepository;
+import com.example.intermediate.service.UserDetailsServiceImpl;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+// 요청마다 거치는 JWT 검증과 JwtFilter 인증 비용
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenBenchmark {
+
+  private ConfigurableApplicationContext context;
+  private TokenProvider tokenProvider;
+  private TokenProvider uncachedTokenProvider;
+  private JwtFilter jwtFilter;
+  private String accessToken;
+  private String refreshToken;
+
+  @Setup
+  public void setUp() {
+    context = BenchmarkApplication.start();
+    tokenProvider = context.getBean(TokenProvider.class);
+    // claims 캐시 없이 매번 서명을 검증하는 경우
+    // max-size 0 이어도 기본 executor 는 정리를 비동기로 해서 잠깐 캐시되므로 호출한 스레드에서 바로 정리
+    uncachedTokenProvider = new TokenProvider(
+        context.getEnvironment().getProperty("jwt.secret"), 0, null);
+    ReflectionTestUtils.setField(uncachedTokenProvider, "claimsCache",
+        Caffeine.newBuilder().maximumSize(0).executor(Runnable::run).build());
+    jwtFilter = new JwtFilter(tokenProvider, context.getBean(UserDetailsServiceImpl.class));
+
+    Member member = context.getBean(MemberRepository.class)
+        .findByNickname(BenchmarkApplication.nickname(0))
+        .orElseThrow();
+    TokenDto tokenDto = tokenProvider.generateTokenDto(member);
+    accessToken = tokenDto.getAccessToken();
+    refreshToken = tokenDto.getRefreshToken();
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public boolean validateToken() {
+    return tokenProvider.validateToken(refreshToken);
+  }
+
+  @Benchmark
+  public boolean validateTokenWithoutCache() {
+    return uncachedTokenProvider.validateToken(refreshToken);
+  }
+
+  @Benchmark
+  public Object parseClaims() {
+    return tokenProvider.getClaims(accessToken);
+  }
+
+  @Benchmark
+  public Object parseClaimsWithoutCache() {
+    return uncachedTokenProvider.getClaims(accessToken);
+  }
+
+  @Benchmark
+  public MockHttpServletResponse jwtFilter() throws ServletException, IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/post");
+    request.addHeader(JwtFilter.AUTHORIZATION_HEADER, JwtFilter.BEARER_PREFIX + accessToken);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    try {
+      jwtFilter.doFilter(request, response, new MockFilterChain());
+    } finally {
+      SecurityContextHolder.clearContext();
+    }
+    return response;
+  }
+}
@@ -0,0 +1,44 @@
+package com.example.intermediate.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ThreadPoolExecutor;
+
+// 비동기 MVC 응답 (지금은 마이페이지 스트리밍의 StreamingResponseBody 만 사용) 을 쓰는 전용 스레드와 시간 제한
+// 스트리밍 하나가 커넥션 하나를 쓰므로 스레드 수가 동시에 쓰는 커넥션 수의 상한, 대기열이 가득 차면 본문을 쓰기 전에 실패한다
+// executor 를 bean 으로 두지 않아 Spring Boot 의 기본 applicationTaskExecutor 는 그대로 남는다
+@Configuration
+public class AsyncConfiguration implements WebMvcConfigurer {
+
+  private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+  private final long timeoutMs;
+
+  public AsyncConfiguration(
+      @Value("${mypage.stream.threads:4}") int threads,
+      @Value("${mypage.stream.queue-capacity:16}") int queueCapacity,
+      @Value("${mypage.stream.timeout-ms:60000}") long timeoutMs) {
+    executor.setCorePoolSize(threads);
+    executor.setMaxPoolSize(threads);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("mvc-async-");
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+    executor.initialize();
+    this.timeoutMs = timeoutMs;
+  }
+
+  @Override
+  public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    configurer.setTaskExecutor(executor);
+    configurer.setDefaultTimeout(timeoutMs);
+  }
+
+  @PreDestroy
+  public void close() {
+    executor.shutdown();
+  }
+}
@@ -0,0 +1,34 @@
+package com.example.intermediate.configuration;
+
+import com.example.intermediate.service.PostDetailCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// 서버마다 두는 Caffeine 캐시, 공유 캐시(Redis 등)로 바꿀 때는 이 CacheManager 만 교체한다
+// 캐시 적중률은 actuator 의 cache.gets 메트릭으로 확인
+@EnableCaching
+@Configuration
+public class CacheConfiguration {
+
+  @Bean
+  public CacheManager cacheManager(
+      @Value("${cache.post-detail.max-size:10000}") long maxSize,
+      @Value("${cache.post-detail.ttl-seconds:60}") long ttlSeconds) {
+    CaffeineCacheManager cacheManager = new CaffeineCacheManager(PostDetailCache.CACHE_NAME);
+    cacheManager.setAllowNullValues(false);
+    cacheManager.setCaffeine(Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+        .recordStats());
+    // 트랜잭션 안에서 evict 하면 커밋된 뒤에 지운다
+    return new TransactionAwareCacheManagerProxy(cacheManager);
+  }
+}
@@ -13,13 +13,12 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class JwtSecurityConfiguration
     extends SecurityConfigurerAdapter<DefaultSecurityFilterChain, HttpSecurity> {
 
-  private final String SECRET_KEY;
   private final TokenProvider tokenProvider;
   private final UserDetailsServiceImpl userDetailsService;
 
   @Override
   public void configure(HttpSecurity httpSecurity) {
-    JwtFilter customJwtFilter = new JwtFilter(SECRET_KEY, tokenProvider, userDetailsService);
+    JwtFilter customJwtFilter = new JwtFilter(tokenProvider, userDetailsService);
     httpSecurity.addFilterBefore(customJwtFilter, UsernamePasswordAuthenticationFilter.class);
   }
 }
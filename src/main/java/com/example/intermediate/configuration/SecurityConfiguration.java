@@ -5,7 +5,6 @@ import com.example.intermediate.jwt.AuthenticationEntryPointException;
 import com.example.intermediate.jwt.TokenProvider;
 import com.example.intermediate.service.UserDetailsServiceImpl;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.autoconfigure.security.ConditionalOnDefaultWebSecurity;
 import org.springframework.boot.autoconfigure.security.SecurityProperties;
@@ -27,8 +26,6 @@ import org.springframework.security.web.SecurityFilterChain;
 @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class SecurityConfiguration {
 
-  @Value("${jwt.secret}")
-  String SECRET_KEY;
   private final TokenProvider tokenProvider;
   private final UserDetailsServiceImpl userDetailsService;
   private final AuthenticationEntryPointException authenticationEntryPointException;
@@ -69,7 +66,7 @@ public class SecurityConfiguration {
         .anyRequest().authenticated()
 
         .and()
-        .apply(new JwtSecurityConfiguration(SECRET_KEY, tokenProvider, userDetailsService));
+        .apply(new JwtSecurityConfiguration(tokenProvider, userDetailsService));
 
     return http.build();
   }
@@ -3,6 +3,8 @@ package com.example.intermediate.controller;
 import com.example.intermediate.controller.response.ResponseDto;
 import com.example.intermediate.controller.request.CommentRequestDto;
 import com.example.intermediate.service.CommentService;
+import com.example.intermediate.service.PostVersionService;
+import java.util.Optional;
 import javax.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.validation.annotation.Validated;
@@ -11,6 +13,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @Validated
 @RequiredArgsConstructor
@@ -18,6 +21,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class CommentController {
 
   private final CommentService commentService;
+  private final PostVersionService postVersionService;
 
   @RequestMapping(value = "/api/auth/comment", method = RequestMethod.POST)
   public ResponseDto<?> createComment(@RequestBody CommentRequestDto requestDto,
@@ -25,8 +29,13 @@ public class CommentController {
     return commentService.createComment(requestDto, request);
   }
 
+  // 게시글 버전이 If-None-Match 와 같으면 댓글을 읽지 않고 304
   @RequestMapping(value = "/api/comment/{id}", method = RequestMethod.GET)
-  public ResponseDto<?> getAllComments(@PathVariable Long id) {
+  public ResponseDto<?> getAllComments(@PathVariable Long id, WebRequest webRequest) {
+    Optional<String> etag = postVersionService.getEtag(id);
+    if (etag.isPresent() && webRequest.checkNotModified(etag.get())) {
+      return null;
+    }
     return commentService.getAllCommentsByPost(id);
   }
 
@@ -2,13 +2,15 @@ package com.example.intermediate.controller;
 
 import com.example.intermediate.controller.request.LoginRequestDto;
 import com.example.intermediate.controller.request.MemberRequestDto;
+import com.example.intermediate.controller.request.MypageRequestDto;
 import com.example.intermediate.controller.response.ResponseDto;
-import com.example.intermediate.controller.response.mypage.ResponseMypageDto;
+import com.example.intermediate.controller.response.mypage.MypageStreamWriter;
 import com.example.intermediate.service.MemberService;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
@@ -19,6 +21,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class MemberController {
 
   private final MemberService memberService;
+  private final MypageStreamWriter mypageStreamWriter;
 
   @RequestMapping(value = "/api/member/signup", method = RequestMethod.POST)
   public ResponseDto<?> signup(@RequestBody @Valid MemberRequestDto requestDto) {
@@ -32,14 +35,22 @@ public class MemberController {
     return memberService.login(requestDto, response);
   }
 
+  // 목록별 커서로 페이지 조회 (postCursor, commentCursor, recommentCursor, size)
+  // mypage.stream.enabled=true 면 페이지 없이 전체를 읽는 대로 스트리밍
   @RequestMapping(value = "/api/auth/member/mypage/writes", method = RequestMethod.GET)
-  public ResponseMypageDto mypageWrite(HttpServletRequest request) {
-    return memberService.mypageWrite(request);
+  public ResponseEntity<?> mypageWrite(HttpServletRequest request, MypageRequestDto pageRequest) {
+    if (mypageStreamWriter.isEnabled()) {
+      return memberService.streamMypageWrite(request);
+    }
+    return ResponseEntity.ok(memberService.mypageWrite(request, pageRequest));
   }
 
   @RequestMapping(value = "/api/auth/member/mypage/likes", method = RequestMethod.GET)
-  public ResponseMypageDto mypageLike(HttpServletRequest request) {
-    return memberService.mypageLike(request);
+  public ResponseEntity<?> mypageLike(HttpServletRequest request, MypageRequestDto pageRequest) {
+    if (mypageStreamWriter.isEnabled()) {
+      return memberService.streamMypageLike(request);
+    }
+    return ResponseEntity.ok(memberService.mypageLike(request, pageRequest));
   }
 
 //  @RequestMapping(value = "/api/auth/member/reissue", method = RequestMethod.POST)
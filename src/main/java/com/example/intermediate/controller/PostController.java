@@ -2,9 +2,14 @@ package com.example.intermediate.controller;
 
 import com.example.intermediate.controller.request.PostRequestDto;
 import com.example.intermediate.controller.response.ResponseDto;
+import com.example.intermediate.controller.response.SerializedResponseCache;
 import com.example.intermediate.service.PostService;
+import com.example.intermediate.service.PostVersionService;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Optional;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
@@ -15,6 +20,8 @@ import org.springframework.web.multipart.MultipartFile;
 public class PostController {
 
     private final PostService postService;
+    private final SerializedResponseCache serializedResponseCache;
+    private final PostVersionService postVersionService;
 
     @PostMapping(value = "/api/auth/post", consumes="multipart/form-data")
     public ResponseDto<?> createPost(@RequestPart PostRequestDto requestDto,
@@ -22,14 +29,36 @@ public class PostController {
         return postService.createPost(requestDto, request, image);
     }
 
+    // 직렬화된 응답을 바로 출력 (ETag, If-None-Match 지원)
+    // 게시글 버전이 그대로면 게시글을 읽지 않고 304
     @RequestMapping(value = "/api/post/{id}", method = RequestMethod.GET)
-    public ResponseDto<?> getPost(@PathVariable Long id) {
-        return postService.getPost(id);
+    public void getPost(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<String> etag = postVersionService.getEtag(id);
+        if (etag.isPresent() && serializedResponseCache.checkNotModified(etag.get(), request, response)) {
+            return;
+        }
+        serializedResponseCache.writePost(postService.getPost(id), request, response);
     }
 
     @RequestMapping(value = "/api/post", method = RequestMethod.GET)
-    public ResponseDto<?> getAllPosts() {
-        return postService.getAllPost();
+    public void getAllPosts(@RequestParam(required = false) String cursor,
+                            @RequestParam(defaultValue = "20") int size,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        serializedResponseCache.writeFeed(cursor, size, () -> postService.getAllPost(cursor, size), request, response);
+    }
+
+    // 제목, 본문 검색 (한글은 두 글자 단위로 일치)
+    @RequestMapping(value = "/api/post/search", method = RequestMethod.GET)
+    public ResponseDto<?> searchPosts(@RequestParam String q,
+                                      @RequestParam(required = false) String cursor,
+                                      @RequestParam(defaultValue = "20") int size) {
+        return postService.searchPost(q, cursor, size);
+    }
+
+    // 인기 게시글 (좋아요, 댓글 수를 시간에 따라 감쇠한 점수 순)
+    @RequestMapping(value = "/api/post/hot", method = RequestMethod.GET)
+    public ResponseDto<?> getHotPosts(@RequestParam(defaultValue = "20") int size) {
+        return postService.getHotPosts(size);
     }
 
     @RequestMapping(value = "/api/auth/post/{id}", method = RequestMethod.PUT)
@@ -2,12 +2,15 @@ package com.example.intermediate.controller;
 
 import com.example.intermediate.controller.request.RecommentRequestDto;
 import com.example.intermediate.controller.response.ResponseDto;
+import com.example.intermediate.service.PostVersionService;
 import com.example.intermediate.service.RecommentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.servlet.http.HttpServletRequest;
+import java.util.Optional;
 
 @Validated
 @RequiredArgsConstructor
@@ -15,6 +18,7 @@ import javax.servlet.http.HttpServletRequest;
 public class RecommentController {
 
     private final RecommentService recommentService;
+    private final PostVersionService postVersionService;
 
     @RequestMapping(value = "/api/auth/recomment", method = RequestMethod.POST)
     public ResponseDto<?> createRecomment(@RequestBody RecommentRequestDto requestDto,
@@ -22,8 +26,13 @@ public class RecommentController {
         return recommentService.createRecomment(requestDto, request);
     }
 
+    // 댓글이 속한 게시글의 버전이 If-None-Match 와 같으면 대댓글을 읽지 않고 304
     @RequestMapping(value = "/api/recomment/{id}", method = RequestMethod.GET)
-    public ResponseDto<?> getAllRecomments(@PathVariable Long id) {
+    public ResponseDto<?> getAllRecomments(@PathVariable Long id, WebRequest webRequest) {
+        Optional<String> etag = postVersionService.getEtagByComment(id);
+        if (etag.isPresent() && webRequest.checkNotModified(etag.get())) {
+            return null;
+        }
         return recommentService.getAllRecommentsByComment(id);
     }
 
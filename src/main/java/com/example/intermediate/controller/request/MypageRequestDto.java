@@ -0,0 +1,16 @@
+package com.example.intermediate.controller.request;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// 마이페이지 목록별 커서 (이전 응답의 next...Cursor), 없으면 처음부터
+@Getter
+@Setter
+@NoArgsConstructor
+public class MypageRequestDto {
+  private Long postCursor;
+  private Long commentCursor;
+  private Long recommentCursor;
+  private int size = 20;
+}
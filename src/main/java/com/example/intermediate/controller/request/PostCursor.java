@@ -0,0 +1,38 @@
+package com.example.intermediate.controller.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// 게시글 목록 keyset 페이지네이션 커서 (modifiedAt, id)
+@Getter
+@AllArgsConstructor
+public class PostCursor {
+    private static final String DELIMITER = "_";
+
+    private LocalDateTime modifiedAt;
+    private Long id;
+
+    public String encode() {
+        String raw = modifiedAt.toString() + DELIMITER + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 잘못된 커서는 null 반환
+    public static PostCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(DELIMITER);
+            if (index < 0) {
+                return null;
+            }
+            return new PostCursor(LocalDateTime.parse(raw.substring(0, index)), Long.parseLong(raw.substring(index + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.intermediate.controller.response;
+
+import com.example.intermediate.domain.Comment;
+import com.example.intermediate.domain.Recomment;
+import com.example.intermediate.repository.CommentRepository;
+import com.example.intermediate.repository.RecommentRepository;
+import com.example.intermediate.service.LikeWriteBuffer;
+import com.example.intermediate.shared.LikeTargetType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 게시글의 댓글/대댓글 트리를 두 번의 쿼리로 조회해서 조립
+@Component
+@RequiredArgsConstructor
+public class CommentTreeProvider {
+
+    private final CommentRepository commentRepository;
+    private final RecommentRepository recommentRepository;
+    private final LikeWriteBuffer likeWriteBuffer;
+
+    public List<CommentResponseDto> getCommentTree(Long postId) {
+        List<CommentResponseDto> commentResponseDtoList = new ArrayList<>();
+
+        List<Comment> commentList = commentRepository.findAllWithMemberByPostId(postId);
+        if (commentList.isEmpty()) {
+            return commentResponseDtoList;
+        }
+
+        // 댓글 id -> 대댓글 목록
+        Map<Long, List<RecommentResponseDto>> recommentMap = new HashMap<>();
+        for (Recomment recomment : recommentRepository.findAllWithMemberByPostId(postId)) {
+            recommentMap.computeIfAbsent(recomment.getComment().getId(), key -> new ArrayList<>())
+                    .add(buildRecommentResponseDto(recomment));
+        }
+
+        for (Comment comment : commentList) {
+            commentResponseDtoList.add(
+                    CommentResponseDto.builder()
+                            .id(comment.getId())
+                            .author(comment.getMember().getNickname())
+                            .content(comment.getContent())
+                            .likesNum(comment.getLikesNum()
+                                    + likeWriteBuffer.getPendingDelta(LikeTargetType.COMMENT, comment.getId()))
+                            .recommentResponseDtoList(recommentMap.getOrDefault(comment.getId(), new ArrayList<>()))
+                            .createdAt(comment.getCreatedAt())
+                            .modifiedAt(comment.getModifiedAt())
+                            .build()
+            );
+        }
+        return commentResponseDtoList;
+    }
+
+    public RecommentResponseDto buildRecommentResponseDto(Recomment recomment) {
+        return RecommentResponseDto.builder()
+                .id(recomment.getId())
+                .author(recomment.getMember().getNickname())
+                .content(recomment.getContent())
+                .likesNum(recomment.getLikesNum()
+                        + likeWriteBuffer.getPendingDelta(LikeTargetType.RECOMMENT, recomment.getId()))
+                .createdAt(recomment.getCreatedAt())
+                .modifiedAt(recomment.getModifiedAt())
+                .build();
+    }
+}
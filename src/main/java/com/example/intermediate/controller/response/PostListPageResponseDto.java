@@ -0,0 +1,18 @@
+package com.example.intermediate.controller.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostListPageResponseDto {
+    private List<PostListResponseDto> postList;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -1,5 +1,7 @@
 package com.example.intermediate.controller.response;
 
+import com.example.intermediate.shared.ImageStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDateTime;
 import java.util.List;
 import lombok.AllArgsConstructor;
@@ -17,8 +19,14 @@ public class PostResponseDto {
   private String content;
   private String author;
   private String imgUrl;
+  private String mediumUrl;
+  private String thumbnailUrl;
+  private ImageStatus imageStatus;
   private int likesNum;
   private List<CommentResponseDto> commentResponseDtoList;
   private LocalDateTime createdAt;
   private LocalDateTime modifiedAt;
+  // 응답을 만들 때 읽은 게시글 버전 (ETag)
+  @JsonIgnore
+  private long version;
 }
\ No newline at end of file
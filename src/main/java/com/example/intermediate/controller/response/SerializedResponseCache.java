@@ -0,0 +1,221 @@
+package com.example.intermediate.controller.response;
+
+import com.example.intermediate.service.PostVersionService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+// 자주 읽히는 응답을 직렬화된 JSON (필요하면 gzip) 바이트로 캐시해서 그대로 출력 스트림에 쓴다
+// response-cache.enabled=false 면 캐시하지 않고 매번 직렬화 (ETag 와 304 는 그대로 지원)
+// ETag 는 게시글 상세는 게시글 버전, 목록은 내용의 해시
+// 게시글 작성, 수정, 삭제는 서비스가 커밋 직후 invalidateFeed 로 목록 캐시를 무효화한다 (이벤트 버스를 거치지 않음)
+@RequiredArgsConstructor
+@Component
+public class SerializedResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${response-cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${response-cache.max-size:10000}")
+    private long maxSize;
+
+    // 게시글 목록은 좋아요 수, 댓글 수가 이 시간만큼 늦게 반영될 수 있다
+    @Value("${response-cache.feed-ttl-seconds:5}")
+    private long feedTtlSeconds;
+
+    @Value("${response-cache.gzip:true}")
+    private boolean gzip;
+
+    // 이보다 작은 응답은 압축하지 않는다
+    @Value("${response-cache.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
+
+    // 게시글 상세는 캐시된 ResponseDto 객체 자체가 버전 (PostDetailCache 가 무효화하면 새 객체가 만들어진다)
+    private Cache<ResponseDto<?>, SerializedResponse> detailResponses;
+    // 게시글 목록은 (커서, 크기, 목록 버전), 게시글이 바뀌면 버전을 올려 이전 페이지를 쓰지 않는다
+    private Cache<FeedKey, SerializedResponse> feedResponses;
+    private final AtomicLong feedVersion = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        detailResponses = Caffeine.newBuilder()
+                .weakKeys()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        feedResponses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(feedTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, detailResponses, "postDetailResponse");
+        CaffeineCacheMetrics.monitor(meterRegistry, feedResponses, "postFeedResponse");
+    }
+
+    // 게시글 상세 응답, 실패 응답은 캐시하지 않는다
+    public void writePost(ResponseDto<?> responseDto, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        SerializedResponse serialized = enabled && responseDto.isSuccess()
+                ? detailResponses.get(responseDto, this::serialize)
+                : serialize(responseDto);
+        write(serialized, request, response);
+    }
+
+    // 응답을 만들기 전에 게시글 버전 ETag 로 확인, 일치하면 304 를 보내고 true
+    // gzip 으로 받은 ETag 는 지금도 gzip 을 받을 수 있을 때만 일치로 본다
+    public boolean checkNotModified(String etag, HttpServletRequest request, HttpServletResponse response) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (null == ifNoneMatch) {
+            return false;
+        }
+        String candidate = gzip && acceptsGzip(request) && ifNoneMatch.contains(toGzipEtag(etag))
+                ? toGzipEtag(etag)
+                : etag;
+        // 일치하지 않을 때 checkNotModified 가 ETag 헤더를 먼저 써 버리지 않도록 미리 확인
+        if (!ifNoneMatch.contains(candidate) && !ifNoneMatch.trim().equals("*")) {
+            return false;
+        }
+        if (gzip) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        return new ServletWebRequest(request, response).checkNotModified(candidate);
+    }
+
+    // 게시글 목록 페이지, 캐시에 없을 때만 loader 로 조회
+    public void writeFeed(String cursor, int size, Supplier<ResponseDto<?>> loader,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!enabled) {
+            write(serialize(loader.get()), request, response);
+            return;
+        }
+
+        FeedKey key = new FeedKey(cursor, size, feedVersion.get());
+        SerializedResponse serialized = feedResponses.getIfPresent(key);
+        if (null == serialized) {
+            ResponseDto<?> responseDto = loader.get();
+            serialized = serialize(responseDto);
+            if (responseDto.isSuccess()) {
+                feedResponses.put(key, serialized);
+            }
+        }
+        write(serialized, request, response);
+    }
+
+    // 게시글 목록에 보이는 내용이 바뀌면 호출, 트랜잭션 안이면 커밋 후에 버전을 올린다
+    public void invalidateFeed() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            feedVersion.incrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                feedVersion.incrementAndGet();
+            }
+        });
+    }
+
+    private void write(SerializedResponse serialized, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        boolean useGzip = null != serialized.gzipBytes && acceptsGzip(request);
+        if (gzip) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        // If-None-Match 가 일치하면 304 와 ETag 만 보낸다
+        if (new ServletWebRequest(request, response).checkNotModified(useGzip ? serialized.gzipEtag : serialized.etag)) {
+            return;
+        }
+
+        byte[] body = useGzip ? serialized.gzipBytes : serialized.bytes;
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (useGzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private SerializedResponse serialize(ResponseDto<?> responseDto) {
+        byte[] bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(responseDto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("응답을 직렬화할 수 없습니다.", e);
+        }
+        String etag = getEtag(responseDto, bytes);
+        byte[] gzipBytes = gzip && bytes.length >= gzipMinBytes ? compress(bytes) : null;
+        return new SerializedResponse(bytes, etag, gzipBytes, toGzipEtag(etag));
+    }
+
+    // 게시글 상세는 응답을 만들 때 읽은 게시글 버전, 그 밖에는 내용의 md5
+    private static String getEtag(ResponseDto<?> responseDto, byte[] bytes) {
+        if (responseDto.getData() instanceof PostResponseDto) {
+            PostResponseDto post = (PostResponseDto) responseDto.getData();
+            return PostVersionService.toEtag(post.getId(), post.getVersion());
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"";
+    }
+
+    // "..." -> "...-gzip"
+    private static String toGzipEtag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    private static byte[] compress(byte[] bytes) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzipOutput = new GZIPOutputStream(output)) {
+            gzipOutput.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return null != acceptEncoding && acceptEncoding.contains("gzip");
+    }
+
+    @RequiredArgsConstructor
+    private static class SerializedResponse {
+        private final byte[] bytes;
+        private final String etag;
+        private final byte[] gzipBytes;
+        private final String gzipEtag;
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class FeedKey {
+        private final String cursor;
+        private final int size;
+        private final long version;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.intermediate.controller.response.mypage;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// 마이페이지 스트리밍 응답 (mypage.stream.enabled=true 일 때 사용)
+// 목록을 메모리에 모으지 않고 Stream 으로 읽은 행을 바로 JSON 으로 써서, 글이나 좋아요가 많아도 메모리 사용량이 일정하다
+// 응답 모양은 ResponseMypageDto.success 와 같다 (모든 행을 쓰므로 다음 페이지 커서는 null)
+// 본문은 AsyncConfiguration 의 전용 스레드에서 쓰고, mypage.stream.timeout-ms 가 지나면 요청과 트랜잭션이 끝난다
+// 200 과 앞부분을 보낸 뒤 실패하면 (시간 초과, DB 오류) 열린 배열과 객체를 닫지 않고 예외를 던지므로
+// 서버가 마지막 chunk 없이 연결을 끊어 클라이언트는 잘린 JSON 이 아니라 전송 오류로 받는다
+@RequiredArgsConstructor
+@Component
+public class MypageStreamWriter {
+
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${mypage.stream.enabled:false}")
+    private boolean enabled;
+
+    @Value("${mypage.stream.timeout-ms:60000}")
+    private long timeoutMs;
+
+    private ObjectWriter rowWriter;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void init() {
+        // 행마다 flush 하지 않고 JsonGenerator 버퍼가 찰 때만 출력 스트림에 쓴다
+        rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        // 요청이 시간 초과로 끝난 뒤에도 커넥션을 붙잡고 있지 않도록 쿼리에도 같은 시간 제한
+        readOnlyTransaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMs)));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 각 Supplier 는 호출한 쪽의 트랜잭션에서 Stream 을 여는 repository 조회
+    // 세 목록을 한 읽기 전용 트랜잭션 안에서 차례로 읽으며 쓴다 (응답 스레드가 아닌 비동기 스레드에서 실행)
+    public ResponseEntity<StreamingResponseBody> stream(Supplier<Stream<PostListMyPageDto>> posts,
+                                                        Supplier<Stream<CommentListMyPageDto>> comments,
+                                                        Supplier<Stream<RecommentListMypageDto>> recomments) {
+        StreamingResponseBody body = output -> readOnlyTransaction.executeWithoutResult(status -> {
+            try {
+                write(output, posts, comments, recomments);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private void write(OutputStream output, Supplier<Stream<PostListMyPageDto>> posts,
+                       Supplier<Stream<CommentListMyPageDto>> comments,
+                       Supplier<Stream<RecommentListMypageDto>> recomments) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // 도중에 실패했을 때 close 가 괄호를 채워 온전한 응답처럼 보이지 않게 한다
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        try (generator) {
+            generator.writeStartObject();
+            generator.writeBooleanField("success", true);
+            writeArray(generator, "postList", posts);
+            writeArray(generator, "commentList", comments);
+            writeArray(generator, "recommentList", recomments);
+            generator.writeNullField("nextPostCursor");
+            generator.writeNullField("nextCommentCursor");
+            generator.writeNullField("nextRecommentCursor");
+            generator.writeNullField("error");
+            generator.writeEndObject();
+        }
+    }
+
+    private <T> void writeArray(JsonGenerator generator, String fieldName, Supplier<Stream<T>> rows) throws IOException {
+        generator.writeArrayFieldStart(fieldName);
+        try (Stream<T> stream = rows.get()) {
+            Iterator<T> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                rowWriter.writeValue(generator, iterator.next());
+            }
+        }
+        generator.writeEndArray();
+    }
+}
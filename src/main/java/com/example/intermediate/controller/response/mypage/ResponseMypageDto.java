@@ -13,14 +13,25 @@ public class ResponseMypageDto {
     private List<CommentListMyPageDto> commentList;
     private List<RecommentListMypageDto> recommentList;
 
+    // 목록마다 다음 페이지 커서 (마지막 항목의 게시글, 댓글, 대댓글 id), 더 없으면 null
+    private Long nextPostCursor;
+    private Long nextCommentCursor;
+    private Long nextRecommentCursor;
+
     private Error error;
 
     public static ResponseMypageDto success(List<PostListMyPageDto> postList, List<CommentListMyPageDto> commentList, List<RecommentListMypageDto> recommentList) {
-        return new ResponseMypageDto(true, postList, commentList, recommentList, null);
+        return new ResponseMypageDto(true, postList, commentList, recommentList, null, null, null, null);
+    }
+
+    public static ResponseMypageDto success(List<PostListMyPageDto> postList, List<CommentListMyPageDto> commentList, List<RecommentListMypageDto> recommentList,
+                                            Long nextPostCursor, Long nextCommentCursor, Long nextRecommentCursor) {
+        return new ResponseMypageDto(true, postList, commentList, recommentList,
+                nextPostCursor, nextCommentCursor, nextRecommentCursor, null);
     }
 
     public static ResponseMypageDto fail(String code, String message) {
-        return new ResponseMypageDto(false, null, null, null, new Error(code, message));
+        return new ResponseMypageDto(false, null, null, null, null, null, null, new Error(code, message));
     }
 
     @Getter
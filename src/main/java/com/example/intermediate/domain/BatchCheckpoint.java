@@ -0,0 +1,30 @@
+package com.example.intermediate.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+// 배치 작업의 진행 위치, 중단된 작업은 다음 실행 때 lastId 이후부터 이어서 처리
+@Getter
+@NoArgsConstructor
+@Entity
+public class BatchCheckpoint extends Timestamped {
+    @Id
+    @Column(length = 100)
+    private String jobName;
+
+    @Column(nullable = false)
+    private Long lastId;
+
+    public BatchCheckpoint(String jobName) {
+        this.jobName = jobName;
+        this.lastId = 0L;
+    }
+
+    public void update(Long lastId) {
+        this.lastId = lastId;
+    }
+}
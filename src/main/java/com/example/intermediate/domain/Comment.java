@@ -8,6 +8,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -17,6 +18,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@DynamicUpdate
 public class Comment extends Timestamped {
 
   @Id
@@ -43,18 +45,13 @@ public class Comment extends Timestamped {
   @Column
   private int likesNum;
 
+  @Column
+  private int recommentsNum;
+
   public void update(CommentRequestDto commentRequestDto) {
     this.content = commentRequestDto.getContent();
   }
 
-  public void like(){
-    this.likesNum += 1;
-  }
-
-  public void unlike(){
-    this.likesNum -= 1;
-  }
-
   public boolean validateMember(Member member) {
     return !this.member.equals(member);
   }
@@ -0,0 +1,35 @@
+package com.example.intermediate.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+// 내용(SHA-256)이 같은 이미지는 S3 에 한 번만 저장하고 참조하는 게시글 수를 센다
+@Getter
+@NoArgsConstructor
+@Entity
+public class ImageBlob extends Timestamped {
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    // 업로드가 끝나기 전에는 null
+    @Column
+    private String url;
+
+    @Column
+    private String mediumUrl;
+
+    @Column
+    private String thumbnailUrl;
+
+    @Column(nullable = false)
+    private int refCount;
+
+    // GC 가 S3 객체를 지우는 중, 끝나면 행도 지운다
+    @Column(nullable = false)
+    private boolean deleting;
+}
@@ -12,6 +12,7 @@ import javax.persistence.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_like_co_member_comment", columnNames = {"member_id", "comment_id"}))
 public class LikeCo {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
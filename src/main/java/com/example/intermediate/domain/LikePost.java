@@ -12,6 +12,7 @@ import javax.persistence.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_like_post_member_post", columnNames = {"member_id", "post_id"}))
 public class LikePost {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
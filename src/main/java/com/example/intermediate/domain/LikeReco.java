@@ -12,6 +12,7 @@ import javax.persistence.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_like_reco_member_recomment", columnNames = {"member_id", "recomment_id"}))
 public class LikeReco {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -7,6 +7,8 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -19,8 +21,11 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = Member.NICKNAME_UNIQUE_CONSTRAINT, columnNames = "nickname"))
 public class Member extends Timestamped {
 
+  public static final String NICKNAME_UNIQUE_CONSTRAINT = "uk_member_nickname";
+
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
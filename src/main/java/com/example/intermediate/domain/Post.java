@@ -1,29 +1,37 @@
 package com.example.intermediate.domain;
 
 import com.example.intermediate.controller.request.PostRequestDto;
+import com.example.intermediate.shared.ImageStatus;
 
 import java.util.ArrayList;
 import java.util.List;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
+import javax.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Builder
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@DynamicUpdate
+@Table(indexes = @Index(name = "idx_post_modified_at_id", columnList = "modifiedAt, id"))
 public class Post extends Timestamped {
 
   @Id
@@ -39,9 +47,34 @@ public class Post extends Timestamped {
   @Column
   private int likesNum;
 
+  @Column
+  private int commentsNum;
+
   @Column
   private String imgUrl;
 
+  @Column
+  private String mediumUrl;
+
+  @Column
+  private String thumbnailUrl;
+
+  // 이미지 내용의 SHA-256, ImageBlob 참조
+  @Column(length = 64)
+  private String imageHash;
+
+  @Enumerated(EnumType.STRING)
+  @Column
+  private ImageStatus imageStatus;
+
+  // 진행 중인 이미지 업로드, 업로드가 끝났을 때 같은 값일 때만 imgUrl 반영
+  @Column
+  private String imageUploadId;
+
+  // 게시글, 댓글, 대댓글, 좋아요가 바뀔 때마다 update 쿼리로 1씩 올린다 (ETag)
+  @Column(nullable = false)
+  private long version;
+
 //  @OneToMany(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
 //  private List<Comment> comments;
 
@@ -56,18 +89,16 @@ public class Post extends Timestamped {
   @ManyToOne(fetch = FetchType.LAZY)
   private Member member;
 
-  public void update(PostRequestDto postRequestDto, String storedFileName) {
+  // 이미지는 업로드가 끝난 뒤 imgUrl 에 반영된다, 기존 이미지의 참조는 호출한 쪽에서 해제
+  public void update(PostRequestDto postRequestDto, String imageUploadId) {
     this.title = postRequestDto.getTitle();
     this.content = postRequestDto.getContent();
-    this.imgUrl = storedFileName;
-  }
-
-  public void like(){
-    this.likesNum += 1;
-  }
-
-  public void unlike(){
-    this.likesNum -= 1;
+    this.imgUrl = null;
+    this.mediumUrl = null;
+    this.thumbnailUrl = null;
+    this.imageHash = null;
+    this.imageUploadId = imageUploadId;
+    this.imageStatus = null == imageUploadId ? ImageStatus.NONE : ImageStatus.PENDING;
   }
 
 
@@ -0,0 +1,34 @@
+package com.example.intermediate.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+// 좋아요가 몰리는 게시글용 분산 카운터 (게시글당 N개의 row, 조회 시 합산)
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_post_like_shard_post_shard", columnNames = {"post_id", "shard_no"}))
+public class PostLikeShard {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+
+    @Column(name = "shard_no", nullable = false)
+    private int shardNo;
+
+    @Column
+    private int likesNum;
+
+    // 이 shard 에 좋아요가 반영될 때마다 1씩 증가, 게시글 버전에 합산된다
+    @Column(nullable = false)
+    private long version;
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.*;
 import java.util.ArrayList;
@@ -15,6 +16,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@DynamicUpdate
 public class Recomment extends Timestamped{
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -44,12 +46,6 @@ public class Recomment extends Timestamped{
     public void update(RecommentRequestDto recommentRequestDto) {
         this.content = recommentRequestDto.getContent();
     }
-    public void like(){
-        this.likesNum += 1;
-    }
-    public void unlike(){
-        this.likesNum -= 1;
-    }
     public boolean validateMember(Member member) {
         return !this.member.equals(member);
     }
@@ -1,38 +1,91 @@
 package com.example.intermediate.domain;
 
+import com.example.intermediate.repository.BatchCheckpointRepository;
 import com.example.intermediate.repository.PostRepository;
 import com.example.intermediate.service.PostService;
+import com.example.intermediate.service.SchedulerLockService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import javax.transaction.Transactional;
 import java.util.List;
 
 //도현님 파일
+@Slf4j
 @RequiredArgsConstructor
 @Component
 public class Scheduler {
+    private static final String POST_DELETE_JOB = "post-delete";
+
     private final PostRepository postRepository;
     private final PostService postService;
+    private final BatchCheckpointRepository batchCheckpointRepository;
+    private final SchedulerLockService schedulerLockService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${scheduler.post-delete.chunk-size:500}")
+    private int chunkSize;
 
-    @Transactional
+    // 여러 서버 중 lease 를 얻은 한 곳에서만 실행
     @Scheduled(cron = "00 00 1 * * *")    //초,분,시,일,월,요일 순서의 메서드 실행되게끔
-    public void updatePostDelete() throws InterruptedException {
-        System.out.println("게시글 업데이트");
+    public void updatePostDelete() {
+        schedulerLockService.runLocked(POST_DELETE_JOB, this::deletePostsWithoutComments);
+    }
 
-        List<Post> postList = postRepository.findAll();
+    // 댓글이 없는 게시글을 chunk 단위로 나누어 각각 짧은 트랜잭션으로 삭제
+    // 진행 위치는 chunk 와 같은 트랜잭션에 저장하므로 중단되면 다음 실행 때 이어서 처리
+    private void deletePostsWithoutComments() {
+        long startedAt = System.currentTimeMillis();
+        long lastId = batchCheckpointRepository.findById(POST_DELETE_JOB)
+                .map(BatchCheckpoint::getLastId)
+                .orElse(0L);
+        if (lastId > 0) {
+            log.info("게시글 삭제 작업을 id {} 이후부터 이어서 진행합니다.", lastId);
+        }
 
-        boolean check = false;
-        for (Post postOne : postList) {
-            if (postOne.getComments().size() == 0) {
-                System.out.println("게시글" + postOne.getTitle() + "이 삭제되었습니다.");
-                postRepository.delete(postOne);
-                check = true;
+        int chunks = 0;
+        int deleted = 0;
+        List<Long> ids;
+        do {
+            if (!schedulerLockService.isHeld(POST_DELETE_JOB)) {
+                log.warn("lease 를 잃어 게시글 삭제를 id {} 에서 멈춥니다.", lastId);
+                return;
             }
-        }
-        if (!check) {
-            System.out.println("삭제할 게시글이 없습니다.");
-        }
+            long chunkStartedAt = System.currentTimeMillis();
+            ids = postRepository.findIdsWithoutComments(lastId, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            List<Long> chunk = ids;
+            lastId = chunk.get(chunk.size() - 1);
+            long checkpointId = lastId;
+            int chunkDeleted = transactionTemplate.execute(status -> {
+                int count = postService.deletePostsWithoutComments(chunk);
+                saveCheckpoint(checkpointId);
+                return count;
+            });
+            chunks++;
+            deleted += chunkDeleted;
+            log.debug("게시글 삭제 chunk {} - {}건 삭제, id {} 까지 ({}ms)",
+                    chunks, chunkDeleted, lastId, System.currentTimeMillis() - chunkStartedAt);
+        } while (ids.size() == chunkSize);
+
+        // 끝까지 처리했으면 다음 실행은 처음부터
+        transactionTemplate.executeWithoutResult(status -> saveCheckpoint(0L));
+
+        long elapsed = Math.max(1, System.currentTimeMillis() - startedAt);
+        log.info("게시글 삭제 완료 - {}건 삭제, chunk {}개 ({}ms, {}건/s)",
+                deleted, chunks, elapsed, deleted * 1000L / elapsed);
+    }
+
+    private void saveCheckpoint(long lastId) {
+        BatchCheckpoint checkpoint = batchCheckpointRepository.findById(POST_DELETE_JOB)
+                .orElseGet(() -> batchCheckpointRepository.save(new BatchCheckpoint(POST_DELETE_JOB)));
+        checkpoint.update(lastId);
     }
-}
\ No newline at end of file
+}
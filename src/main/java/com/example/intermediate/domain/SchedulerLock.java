@@ -0,0 +1,29 @@
+package com.example.intermediate.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.time.LocalDateTime;
+
+// 여러 서버 중 한 곳에서만 스케줄 작업을 실행하기 위한 lease
+// lockedUntil 이 지나면 다른 서버가 가져갈 수 있다
+@Getter
+@NoArgsConstructor
+@Entity
+public class SchedulerLock {
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(nullable = false)
+    private String lockedBy;
+
+    @Column(nullable = false)
+    private LocalDateTime lockedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime lockedUntil;
+}
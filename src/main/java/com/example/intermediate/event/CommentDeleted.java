@@ -0,0 +1,13 @@
+package com.example.intermediate.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// 댓글 삭제
+@Getter
+@RequiredArgsConstructor
+public class CommentDeleted implements DomainEvent {
+
+    private final Long postId;
+    private final Long commentId;
+}
@@ -0,0 +1,5 @@
+package com.example.intermediate.event;
+
+// DomainEventBus 로 커밋 후 전달되는 이벤트
+public interface DomainEvent {
+}
@@ -0,0 +1,220 @@
+package com.example.intermediate.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 쓰기 작업의 부수 효과 (검색 색인, 인기 게시글 점수) 를 서비스 밖으로 옮기는 프로세스 내 이벤트 버스
+// 트랜잭션 안에서 발행하면 커밋 후, 밖이면 바로 구독자별 대기열에 넣고 요청 스레드는 기다리지 않는다
+// 대기열이 가득 차면 발행한 스레드가 offer-timeout-ms 까지만 기다리고, 그래도 자리가 없으면 버리고 event.bus.dropped 를 센다
+// afterCommit 에서는 아직 커넥션을 쥐고 있으므로 오래 붙잡지 않는다, 버린 이벤트는 재기동 때 DB 에서 다시 만든다
+// DB 카운터, 게시글 버전, 상세 캐시와 목록 캐시 무효화는 응답 직후의 조회에 반영되어야 하므로 서비스의 트랜잭션에 남긴다
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class DomainEventBus {
+
+    private final List<DomainEventSubscriber> subscribers;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${event.bus.queue-capacity:10000}")
+    private int queueCapacity;
+
+    // 구독자에게 한 번에 전달하는 최대 이벤트 수
+    @Value("${event.bus.batch-size:100}")
+    private int batchSize;
+
+    // 대기열이 가득 찼을 때 발행한 스레드가 기다리는 최대 시간
+    @Value("${event.bus.offer-timeout-ms:50}")
+    private long offerTimeoutMs;
+
+    private final List<Channel> channels = new ArrayList<>();
+
+    @PostConstruct
+    public void init() {
+        for (DomainEventSubscriber subscriber : subscribers) {
+            Channel channel = new Channel(subscriber);
+            channels.add(channel);
+            channel.thread.start();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        for (Channel channel : channels) {
+            channel.running = false;
+            channel.thread.interrupt();
+        }
+        for (Channel channel : channels) {
+            channel.thread.join(TimeUnit.SECONDS.toMillis(10));
+            if (!channel.queue.isEmpty()) {
+                log.warn("{} 이벤트 {}건을 전달하지 못한 채 종료합니다.", channel.name, channel.queue.size());
+            }
+        }
+    }
+
+    public void publish(DomainEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(event);
+            }
+        });
+    }
+
+    // 지금까지 넣은 이벤트를 모든 구독자가 처리할 때까지 기다린다, 시간 안에 끝나면 true
+    public boolean awaitIdle(long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        for (Channel channel : channels) {
+            while (channel.pending.get() > 0) {
+                if (System.currentTimeMillis() > deadline) {
+                    return false;
+                }
+                Thread.sleep(5);
+            }
+        }
+        return true;
+    }
+
+    private void enqueue(DomainEvent event) {
+        for (Channel channel : channels) {
+            if (channel.subscriber.accepts(event)) {
+                channel.put(new Envelope(event, System.currentTimeMillis()));
+            }
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class Envelope {
+        private final DomainEvent event;
+        private final long publishedAt;
+    }
+
+    // 구독자별 대기열과 전달 스레드
+    private class Channel {
+        private final DomainEventSubscriber subscriber;
+        private final String name;
+        private final BlockingQueue<Envelope> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final Thread thread;
+        private final Counter delivered;
+        private final Counter failed;
+        private final Counter blocked;
+        private final Counter dropped;
+        private final Timer batchTimer;
+        // 대기열에 넣었지만 아직 전달이 끝나지 않은 이벤트 수
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile boolean running = true;
+        // 전달 중인 묶음에서 가장 먼저 발행된 이벤트의 시각, 없으면 0
+        private volatile long oldestInFlight;
+
+        private Channel(DomainEventSubscriber subscriber) {
+            this.subscriber = subscriber;
+            this.name = subscriber.getSubscriberName();
+            thread = new Thread(this::run, "event-" + name);
+            thread.setDaemon(true);
+
+            Gauge.builder("event.bus.queue.size", queue, BlockingQueue::size)
+                    .tag("subscriber", name)
+                    .register(meterRegistry);
+            // 아직 처리되지 않은 가장 오래된 이벤트가 발행된 뒤 지난 시간
+            Gauge.builder("event.bus.lag", this, Channel::getLagMillis)
+                    .tag("subscriber", name)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+            delivered = meterRegistry.counter("event.bus.delivered", "subscriber", name);
+            failed = meterRegistry.counter("event.bus.failed", "subscriber", name);
+            // 대기열이 가득 차 발행한 스레드가 기다린 횟수
+            blocked = meterRegistry.counter("event.bus.blocked", "subscriber", name);
+            // 기다려도 자리가 나지 않아 버린 이벤트 수
+            dropped = meterRegistry.counter("event.bus.dropped", "subscriber", name);
+            batchTimer = meterRegistry.timer("event.bus.batch", "subscriber", name);
+        }
+
+        private void put(Envelope envelope) {
+            pending.incrementAndGet();
+            if (queue.offer(envelope)) {
+                return;
+            }
+            blocked.increment();
+            try {
+                if (queue.offer(envelope, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+                log.warn("{} 대기열이 가득 차 이벤트를 버립니다. {}", name, envelope.event.getClass().getSimpleName());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("{} 이벤트 대기 중 인터럽트되어 이벤트를 버립니다. {}", name, envelope.event.getClass().getSimpleName());
+            }
+            pending.decrementAndGet();
+            dropped.increment();
+        }
+
+        private double getLagMillis() {
+            long oldest = oldestInFlight;
+            if (oldest == 0) {
+                Envelope head = queue.peek();
+                oldest = null == head ? 0 : head.publishedAt;
+            }
+            return oldest == 0 ? 0 : System.currentTimeMillis() - oldest;
+        }
+
+        private void run() {
+            List<Envelope> batch = new ArrayList<>(batchSize);
+            while (running || !queue.isEmpty()) {
+                try {
+                    Envelope first = queue.poll(1, TimeUnit.SECONDS);
+                    if (null == first) {
+                        continue;
+                    }
+                    oldestInFlight = first.publishedAt;
+                    batch.add(first);
+                } catch (InterruptedException e) {
+                    // 종료 중, 남은 이벤트는 반복문에서 마저 전달
+                    continue;
+                }
+                queue.drainTo(batch, batchSize - 1);
+                deliver(batch);
+                pending.addAndGet(-batch.size());
+                batch.clear();
+                oldestInFlight = 0;
+            }
+        }
+
+        private void deliver(List<Envelope> batch) {
+            List<DomainEvent> events = new ArrayList<>(batch.size());
+            for (Envelope envelope : batch) {
+                events.add(envelope.event);
+            }
+            long startedAt = System.nanoTime();
+            try {
+                subscriber.onEvents(events);
+                delivered.increment(events.size());
+            } catch (RuntimeException e) {
+                failed.increment(events.size());
+                log.error("{} 이벤트 {}건 처리 실패", name, events.size(), e);
+            } finally {
+                batchTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
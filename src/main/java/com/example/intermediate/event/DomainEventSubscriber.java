@@ -0,0 +1,15 @@
+package com.example.intermediate.event;
+
+import java.util.List;
+
+// DomainEventBus 구독자, 구독자마다 전용 스레드에서 모아 둔 이벤트를 발행 순서대로 전달받는다
+public interface DomainEventSubscriber {
+
+    // 지표의 subscriber 태그, 스레드 이름에 쓰인다
+    String getSubscriberName();
+
+    // false 면 대기열에 넣지 않는다
+    boolean accepts(DomainEvent event);
+
+    void onEvents(List<DomainEvent> events);
+}
@@ -0,0 +1,15 @@
+package com.example.intermediate.event;
+
+import com.example.intermediate.shared.LikeTargetType;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// 게시글, 댓글, 대댓글 좋아요 추가 (liked) 또는 취소
+@Getter
+@RequiredArgsConstructor
+public class LikeToggled implements DomainEvent {
+
+    private final LikeTargetType targetType;
+    private final Long targetId;
+    private final boolean liked;
+}
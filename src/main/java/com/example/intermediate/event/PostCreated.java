@@ -0,0 +1,14 @@
+package com.example.intermediate.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// 게시글 작성
+@Getter
+@RequiredArgsConstructor
+public class PostCreated implements DomainEvent {
+
+    private final Long postId;
+    private final String title;
+    private final String content;
+}
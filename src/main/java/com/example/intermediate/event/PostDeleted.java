@@ -0,0 +1,14 @@
+package com.example.intermediate.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Collection;
+
+// 게시글 삭제 (일괄 삭제면 여러 건)
+@Getter
+@RequiredArgsConstructor
+public class PostDeleted implements DomainEvent {
+
+    private final Collection<Long> postIds;
+}
@@ -0,0 +1,14 @@
+package com.example.intermediate.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// 게시글 제목, 본문 수정
+@Getter
+@RequiredArgsConstructor
+public class PostUpdated implements DomainEvent {
+
+    private final Long postId;
+    private final String title;
+    private final String content;
+}
@@ -1,16 +1,8 @@
 package com.example.intermediate.jwt;
 
-import com.example.intermediate.controller.response.ResponseDto;
 import com.example.intermediate.service.UserDetailsServiceImpl;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.ExpiredJwtException;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 import java.io.IOException;
-import java.security.Key;
-import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.stream.Collectors;
@@ -36,37 +28,17 @@ public class JwtFilter extends OncePerRequestFilter {
 
   public static String AUTHORITIES_KEY = "auth";
 
-  private final String SECRET_KEY;
-
   private final TokenProvider tokenProvider;
   private final UserDetailsServiceImpl userDetailsService;
 
   protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
       throws IOException, ServletException {
 
-    byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-    Key key = Keys.hmacShaKeyFor(keyBytes);
-
     String jwt = resolveToken(request);
 
-    if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-      Claims claims;
-      try {
-        claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(jwt).getBody();
-      } catch (ExpiredJwtException e) {
-        claims = e.getClaims();
-      }
-
-      if (claims.getExpiration().toInstant().toEpochMilli() < Instant.now().toEpochMilli()) {
-        response.setContentType("application/json;charset=UTF-8");
-        response.getWriter().println(
-            new ObjectMapper().writeValueAsString(
-                ResponseDto.fail("BAD_REQUEST", "Token이 유효햐지 않습니다.")
-            )
-        );
-        response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
-      }
-
+    // 서명 검증과 만료 확인은 TokenProvider 에서 한 번만 한다
+    Claims claims = StringUtils.hasText(jwt) ? tokenProvider.getClaims(jwt) : null;
+    if (null != claims) {
       String subject = claims.getSubject();
       Collection<? extends GrantedAuthority> authorities =
           Arrays.stream(claims.get(AUTHORITIES_KEY).toString().split(","))
@@ -8,8 +8,12 @@ import com.example.intermediate.controller.request.TokenDto;
 import com.example.intermediate.repository.RefreshTokenRepository;
 import com.example.intermediate.service.UserDetailsServiceImpl;
 import com.example.intermediate.shared.Authority;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -22,6 +26,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -44,16 +49,28 @@ public class TokenProvider {
   private static final long ACCESS_TOKEN_EXPIRE_TIME = 1000 * 60 * 60;            // 1시간
   private static final long REFRESH_TOKEN_EXPRIRE_TIME = 1000 * 60 * 60 * 24 * 7;     //7일
 
+  private static final long MAX_CLAIMS_CACHE_TTL = 1000 * 60 * 10;                // 10분
+
   private final Key key;
+  private final JwtParser jwtParser;
+
+  // 검증이 끝난 토큰의 claims, 토큰 만료 시각이 지나면 함께 만료된다
+  private final Cache<String, Claims> claimsCache;
 
   private final RefreshTokenRepository refreshTokenRepository;
 //  private final UserDetailsServiceImpl userDetailsService;
 
   public TokenProvider(@Value("${jwt.secret}") String secretKey,
+      @Value("${jwt.claims-cache.max-size:10000}") long claimsCacheMaxSize,
       RefreshTokenRepository refreshTokenRepository) {
     this.refreshTokenRepository = refreshTokenRepository;
     byte[] keyBytes = Decoders.BASE64.decode(secretKey);
     this.key = Keys.hmacShaKeyFor(keyBytes);
+    this.jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
+    this.claimsCache = Caffeine.newBuilder()
+        .maximumSize(claimsCacheMaxSize)
+        .expireAfter(new ClaimsExpiry())
+        .build();
   }
 
   public TokenDto generateTokenDto(Member member) {
@@ -116,9 +133,25 @@ public class TokenProvider {
   }
 
   public boolean validateToken(String token) {
+    return null != getClaims(token);
+  }
+
+  // 유효한 토큰이면 claims, 아니면 null
+  public Claims getClaims(String token) {
+    if (null == token) {
+      log.info("JWT claims is empty, 잘못된 JWT 토큰 입니다.");
+      return null;
+    }
+
+    Claims claims = claimsCache.getIfPresent(token);
+    if (null != claims) {
+      return claims;
+    }
+
     try {
-      Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-      return true;
+      claims = jwtParser.parseClaimsJws(token).getBody();
+      claimsCache.put(token, claims);
+      return claims;
     } catch (SecurityException | MalformedJwtException e) {
       log.info("Invalid JWT signature, 유효하지 않는 JWT 서명 입니다.");
     } catch (ExpiredJwtException e) {
@@ -128,7 +161,7 @@ public class TokenProvider {
     } catch (IllegalArgumentException e) {
       log.info("JWT claims is empty, 잘못된 JWT 토큰 입니다.");
     }
-    return false;
+    return null;
   }
 
 //  private Claims parseClaims(String accessToken) {
@@ -155,4 +188,26 @@ public class TokenProvider {
     refreshTokenRepository.delete(refreshToken);
     return ResponseDto.success("success");
   }
+
+  private static class ClaimsExpiry implements Expiry<String, Claims> {
+
+    @Override
+    public long expireAfterCreate(String token, Claims claims, long currentTime) {
+      long ttl = MAX_CLAIMS_CACHE_TTL;
+      if (null != claims.getExpiration()) {
+        ttl = Math.min(ttl, claims.getExpiration().getTime() - System.currentTimeMillis());
+      }
+      return TimeUnit.MILLISECONDS.toNanos(Math.max(ttl, 0));
+    }
+
+    @Override
+    public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+
+    @Override
+    public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
 }
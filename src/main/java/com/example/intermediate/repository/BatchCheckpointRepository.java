@@ -0,0 +1,7 @@
+package com.example.intermediate.repository;
+
+import com.example.intermediate.domain.BatchCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface BatchCheckpointRepository extends JpaRepository<BatchCheckpoint, String> {
+}
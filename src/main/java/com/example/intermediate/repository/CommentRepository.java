@@ -1,12 +1,61 @@
 package com.example.intermediate.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+import com.example.intermediate.controller.response.mypage.CommentListMyPageDto;
 import com.example.intermediate.domain.Comment;
 import com.example.intermediate.domain.Member;
 import com.example.intermediate.domain.Post;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+
+  // 마이페이지 목록용 projection (c: 댓글, m: 댓글 작성자)
+  String MYPAGE_SELECT = "select new com.example.intermediate.controller.response.mypage.CommentListMyPageDto("
+      + "c.id, c.post.id, m.nickname, c.content, c.likesNum, c.recommentsNum, c.createdAt, c.modifiedAt)";
+
   List<Comment> findAllByPost(Post post);
   List<Comment> findAllByMember(Member member);
+
+  @Query(MYPAGE_SELECT + " from Comment c join c.member m where m.id = :memberId and c.id > :afterId order by c.id")
+  List<CommentListMyPageDto> findMypageByMemberId(@Param("memberId") Long memberId, @Param("afterId") Long afterId, Pageable pageable);
+
+  @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = PostRepository.STREAM_FETCH_SIZE))
+  @Query(MYPAGE_SELECT + " from Comment c join c.member m where m.id = :memberId order by c.id")
+  Stream<CommentListMyPageDto> streamMypageByMemberId(@Param("memberId") Long memberId);
+
+  @Query("select c from Comment c join fetch c.member where c.post.id = :postId order by c.id")
+  List<Comment> findAllWithMemberByPostId(@Param("postId") Long postId);
+
+  @Modifying
+  @Query("update Comment c set c.likesNum = c.likesNum + :delta where c.id = :id")
+  int addLikesNum(@Param("id") Long id, @Param("delta") int delta);
+
+  @Modifying
+  @Query("update Comment c set c.recommentsNum = c.recommentsNum + :delta where c.id = :id")
+  int addRecommentsNum(@Param("id") Long id, @Param("delta") int delta);
+
+  @Query("select c.post.id from Comment c where c.id = :id")
+  Optional<Long> findPostIdById(@Param("id") Long id);
+
+  @Query("select coalesce(max(c.id), 0) from Comment c")
+  long findMaxId();
+
+  // 대댓글 수가 실제와 다른 댓글 보정
+  @Transactional
+  @Modifying
+  @Query("update Comment c set c.recommentsNum = (select count(r) from Recomment r where r.comment = c)"
+      + " where c.id between :fromId and :toId"
+      + " and c.recommentsNum <> (select count(r) from Recomment r where r.comment = c)")
+  int reconcileRecommentsNum(@Param("fromId") Long fromId, @Param("toId") Long toId);
 }
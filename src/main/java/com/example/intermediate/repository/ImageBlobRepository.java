@@ -0,0 +1,52 @@
+package com.example.intermediate.repository;
+
+import com.example.intermediate.domain.ImageBlob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+
+public interface ImageBlobRepository extends JpaRepository<ImageBlob, String> {
+
+    // 참조 수 증가, 없으면 참조 1 인 빈 blob 생성 (GC 가 지우는 중인 blob 은 올리지 않는다)
+    @Transactional
+    @Modifying
+    @Query(value = "insert into image_blob (hash, ref_count, deleting, created_at, modified_at)"
+            + " values (:hash, 1, false, now(), now())"
+            + " on duplicate key update ref_count = case when deleting then ref_count else ref_count + 1 end,"
+            + " modified_at = now()", nativeQuery = true)
+    int addReference(@Param("hash") String hash);
+
+    @Transactional
+    @Modifying
+    @Query("update ImageBlob b set b.refCount = b.refCount - :count where b.hash = :hash")
+    int release(@Param("hash") String hash, @Param("count") int count);
+
+    @Transactional
+    @Modifying
+    @Query("update ImageBlob b set b.url = :url, b.mediumUrl = :mediumUrl, b.thumbnailUrl = :thumbnailUrl"
+            + " where b.hash = :hash")
+    int updateUrls(@Param("hash") String hash, @Param("url") String url,
+                   @Param("mediumUrl") String mediumUrl, @Param("thumbnailUrl") String thumbnailUrl);
+
+    // 참조가 없는 blob, 삭제 표시를 하는 동안만 잠가 둔다 (이전 GC 가 표시만 하고 끝난 blob 포함)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from ImageBlob b where b.refCount <= 0 order by b.hash")
+    List<ImageBlob> findAllUnreferenced(Pageable pageable);
+
+    @Modifying
+    @Query("update ImageBlob b set b.deleting = true where b.hash in :hashes")
+    int markDeleting(@Param("hashes") List<String> hashes);
+
+    // S3 객체를 지운 뒤 행 삭제
+    @Transactional
+    @Modifying
+    @Query("delete from ImageBlob b where b.hash = :hash and b.deleting = true")
+    int deleteDeleting(@Param("hash") String hash);
+}
@@ -1,14 +1,44 @@
 package com.example.intermediate.repository;
 
+import com.example.intermediate.controller.response.mypage.CommentListMyPageDto;
 import com.example.intermediate.domain.Comment;
 import com.example.intermediate.domain.LikeCo;
 import com.example.intermediate.domain.Member;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface LikeCoRepository extends JpaRepository<LikeCo, Long> {
     Optional<LikeCo> findLikeCoByMemberAndComment(Member member, Comment comment);
     List<LikeCo> findAllByMember(Member member);
-}
\ No newline at end of file
+
+    // 좋아요한 대상과 작성자를 join 해서 대상 id 순으로 읽는다 (회원당 대상은 하나라 (member_id, comment_id) unique 인덱스로 keyset)
+    @Query(CommentRepository.MYPAGE_SELECT + " from LikeCo l join l.comment c join c.member m"
+            + " where l.member.id = :memberId and c.id > :afterId order by c.id")
+    List<CommentListMyPageDto> findMypageByMemberId(@Param("memberId") Long memberId, @Param("afterId") Long afterId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = PostRepository.STREAM_FETCH_SIZE))
+    @Query(CommentRepository.MYPAGE_SELECT + " from LikeCo l join l.comment c join c.member m where l.member.id = :memberId order by c.id")
+    Stream<CommentListMyPageDto> streamMypageByMemberId(@Param("memberId") Long memberId);
+
+    boolean existsByMemberIdAndCommentId(Long memberId, Long commentId);
+
+    @Modifying
+    @Query("delete from LikeCo l where l.member.id = :memberId and l.comment.id = :commentId")
+    int deleteByMemberIdAndCommentId(@Param("memberId") Long memberId, @Param("commentId") Long commentId);
+
+    // 이미 있거나 동시에 같은 좋아요가 들어와 unique 제약에 걸리면 예외 대신 0 반환
+    @Modifying
+    @Query(value = "insert ignore into like_co (member_id, comment_id) values (:memberId, :commentId)", nativeQuery = true)
+    int insertIfAbsent(@Param("memberId") Long memberId, @Param("commentId") Long commentId);
+}
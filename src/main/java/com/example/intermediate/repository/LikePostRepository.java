@@ -1,14 +1,48 @@
 package com.example.intermediate.repository;
 
+import com.example.intermediate.controller.response.mypage.PostListMyPageDto;
 import com.example.intermediate.domain.LikePost;
 import com.example.intermediate.domain.Member;
 import com.example.intermediate.domain.Post;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface LikePostRepository extends JpaRepository<LikePost, Long> {
     Optional<LikePost> findLikePostByMemberAndPost(Member member, Post post);
     List<LikePost> findAllByMember(Member member);
+
+    // 좋아요한 대상과 작성자를 join 해서 대상 id 순으로 읽는다 (회원당 대상은 하나라 (member_id, post_id) unique 인덱스로 keyset)
+    @Query(PostRepository.MYPAGE_SELECT + " from LikePost l join l.post p join p.member m"
+            + " where l.member.id = :memberId and p.id > :afterId order by p.id")
+    List<PostListMyPageDto> findMypageByMemberId(@Param("memberId") Long memberId, @Param("afterId") Long afterId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = PostRepository.STREAM_FETCH_SIZE))
+    @Query(PostRepository.MYPAGE_SELECT + " from LikePost l join l.post p join p.member m where l.member.id = :memberId order by p.id")
+    Stream<PostListMyPageDto> streamMypageByMemberId(@Param("memberId") Long memberId);
+
+    boolean existsByMemberIdAndPostId(Long memberId, Long postId);
+
+    @Modifying
+    @Query("delete from LikePost l where l.member.id = :memberId and l.post.id = :postId")
+    int deleteByMemberIdAndPostId(@Param("memberId") Long memberId, @Param("postId") Long postId);
+
+    @Modifying
+    @Query("delete from LikePost l where l.post.id in :postIds")
+    int deleteAllByPostIdIn(@Param("postIds") List<Long> postIds);
+
+    // 이미 있거나 동시에 같은 좋아요가 들어와 unique 제약에 걸리면 예외 대신 0 반환
+    @Modifying
+    @Query(value = "insert ignore into like_post (member_id, post_id) values (:memberId, :postId)", nativeQuery = true)
+    int insertIfAbsent(@Param("memberId") Long memberId, @Param("postId") Long postId);
 }
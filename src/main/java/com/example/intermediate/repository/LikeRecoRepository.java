@@ -1,14 +1,44 @@
 package com.example.intermediate.repository;
 
+import com.example.intermediate.controller.response.mypage.RecommentListMypageDto;
 import com.example.intermediate.domain.LikeReco;
 import com.example.intermediate.domain.Member;
 import com.example.intermediate.domain.Recomment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface LikeRecoRepository extends JpaRepository<LikeReco, Long> {
     Optional<LikeReco> findLikePostByMemberAndRecomment(Member member, Recomment recomment);
     List<LikeReco> findAllByMember(Member member);
-}
\ No newline at end of file
+
+    // 좋아요한 대상과 작성자를 join 해서 대상 id 순으로 읽는다 (회원당 대상은 하나라 (member_id, recomment_id) unique 인덱스로 keyset)
+    @Query(RecommentRepository.MYPAGE_SELECT + " from LikeReco l join l.recomment r join r.member m"
+            + " where l.member.id = :memberId and r.id > :afterId order by r.id")
+    List<RecommentListMypageDto> findMypageByMemberId(@Param("memberId") Long memberId, @Param("afterId") Long afterId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = PostRepository.STREAM_FETCH_SIZE))
+    @Query(RecommentRepository.MYPAGE_SELECT + " from LikeReco l join l.recomment r join r.member m where l.member.id = :memberId order by r.id")
+    Stream<RecommentListMypageDto> streamMypageByMemberId(@Param("memberId") Long memberId);
+
+    boolean existsByMemberIdAndRecommentId(Long memberId, Long recommentId);
+
+    @Modifying
+    @Query("delete from LikeReco l where l.member.id = :memberId and l.recomment.id = :recommentId")
+    int deleteByMemberIdAndRecommentId(@Param("memberId") Long memberId, @Param("recommentId") Long recommentId);
+
+    // 이미 있거나 동시에 같은 좋아요가 들어와 unique 제약에 걸리면 예외 대신 0 반환
+    @Modifying
+    @Query(value = "insert ignore into like_reco (member_id, recomment_id) values (:memberId, :recommentId)", nativeQuery = true)
+    int insertIfAbsent(@Param("memberId") Long memberId, @Param("recommentId") Long recommentId);
+}
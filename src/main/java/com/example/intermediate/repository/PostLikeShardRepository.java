@@ -0,0 +1,39 @@
+package com.example.intermediate.repository;
+
+import com.example.intermediate.domain.PostLikeShard;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface PostLikeShardRepository extends JpaRepository<PostLikeShard, Long> {
+
+    @Modifying
+    @Query(value = "insert into post_like_shard (post_id, shard_no, likes_num, version) values (:postId, :shardNo, :delta, 1)"
+            + " on duplicate key update likes_num = likes_num + :delta, version = version + 1", nativeQuery = true)
+    int addLikesNum(@Param("postId") Long postId, @Param("shardNo") int shardNo, @Param("delta") int delta);
+
+    @Query("select coalesce(sum(s.likesNum), 0) from PostLikeShard s where s.postId = :postId")
+    long sumLikesNum(@Param("postId") Long postId);
+
+    @Query("select coalesce(sum(s.version), 0) from PostLikeShard s where s.postId = :postId")
+    long sumVersion(@Param("postId") Long postId);
+
+    @Query("select s from PostLikeShard s where s.likesNum <> 0 order by s.id")
+    List<PostLikeShard> findAllNotFolded(Pageable pageable);
+
+    @Modifying
+    @Query("update PostLikeShard s set s.likesNum = s.likesNum - :delta where s.id = :id")
+    int subtractLikesNum(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying
+    @Query("delete from PostLikeShard s where s.postId = :postId")
+    int deleteAllByPostId(@Param("postId") Long postId);
+
+    @Modifying
+    @Query("delete from PostLikeShard s where s.postId in :postIds")
+    int deleteAllByPostIdIn(@Param("postIds") List<Long> postIds);
+}
@@ -1,11 +1,143 @@
 package com.example.intermediate.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+import com.example.intermediate.controller.response.PostListResponseDto;
+import com.example.intermediate.controller.response.mypage.PostListMyPageDto;
 import com.example.intermediate.domain.Member;
 import com.example.intermediate.domain.Post;
+import com.example.intermediate.shared.ImageStatus;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface PostRepository extends JpaRepository<Post, Long> {
-  List<Post> findAllByOrderByModifiedAtDesc();
+
+  // 게시글 목록 조회용 projection (작성자, 댓글 수를 한 번의 쿼리로 조회, 이미지는 썸네일)
+  // 좋아요 수는 p.likesNum 만 읽으므로 분산 카운터를 켜면 (PostLikeCounter) fold 주기만큼 늦게 반영된다
+  String FEED_SELECT = "select new com.example.intermediate.controller.response.PostListResponseDto("
+      + "p.id, p.title, m.nickname, coalesce(p.thumbnailUrl, p.imgUrl), p.likesNum, p.commentsNum, p.createdAt, p.modifiedAt)"
+      + " from Post p join p.member m";
+
+  // 마이페이지 목록용 projection (p: 게시글, m: 게시글 작성자), 좋아요 수는 FEED_SELECT 와 같이 늦을 수 있다
+  String MYPAGE_SELECT = "select new com.example.intermediate.controller.response.mypage.PostListMyPageDto("
+      + "p.id, p.title, m.nickname, coalesce(p.thumbnailUrl, p.imgUrl), p.content, p.likesNum, p.commentsNum, p.createdAt, p.modifiedAt)";
+
+  // Stream 조회 시 한 번에 가져오는 행 수 (MySQL 은 url 에 useCursorFetch=true 가 있어야 적용된다)
+  String STREAM_FETCH_SIZE = "500";
+
   List<Post> findAllByMember(Member member);
+
+  // 마이페이지 페이지, afterId 이후부터 id 순
+  @Query(MYPAGE_SELECT + " from Post p join p.member m where m.id = :memberId and p.id > :afterId order by p.id")
+  List<PostListMyPageDto> findMypageByMemberId(@Param("memberId") Long memberId, @Param("afterId") Long afterId, Pageable pageable);
+
+  // 호출한 쪽의 트랜잭션 안에서 읽으면서 닫아야 한다
+  @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+  @Query(MYPAGE_SELECT + " from Post p join p.member m where m.id = :memberId order by p.id")
+  Stream<PostListMyPageDto> streamMypageByMemberId(@Param("memberId") Long memberId);
+
+  @Query("select p from Post p join fetch p.member where p.id = :id")
+  Optional<Post> findWithMemberById(@Param("id") Long id);
+
+  // 게시글 목록 첫 페이지 (idx_post_modified_at_id 사용)
+  @Query(FEED_SELECT
+      + " order by p.modifiedAt desc, p.id desc")
+  List<PostListResponseDto> findFeed(Pageable pageable);
+
+  // 커서 (modifiedAt, id) 이후의 게시글 목록
+  @Query(FEED_SELECT
+      + " where p.modifiedAt < :modifiedAt or (p.modifiedAt = :modifiedAt and p.id < :id)"
+      + " order by p.modifiedAt desc, p.id desc")
+  List<PostListResponseDto> findFeedAfter(@Param("modifiedAt") LocalDateTime modifiedAt, @Param("id") Long id, Pageable pageable);
+
+  // 인기 게시글 점수 초기화용, 최근에 수정된 순
+  @Query(FEED_SELECT
+      + " where p.modifiedAt > :since"
+      + " order by p.modifiedAt desc, p.id desc")
+  List<PostListResponseDto> findFeedModifiedAfter(@Param("since") LocalDateTime since, Pageable pageable);
+
+  // 검색 결과 목록, 순서는 호출한 쪽에서 맞춘다
+  @Query(FEED_SELECT
+      + " where p.id in :ids")
+  List<PostListResponseDto> findFeedByIdIn(@Param("ids") Collection<Long> ids);
+
+  // 검색 색인 생성용
+  @Query("select p from Post p where p.id > :afterId order by p.id")
+  List<Post> findAllAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+  @Modifying
+  @Query("update Post p set p.likesNum = p.likesNum + :delta, p.version = p.version + 1 where p.id = :id")
+  int addLikesNum(@Param("id") Long id, @Param("delta") int delta);
+
+  // 분산 카운터의 값을 옮겨 올 때 사용, 합계는 그대로이므로 버전 (ETag) 을 올리지 않는다
+  @Modifying
+  @Query("update Post p set p.likesNum = p.likesNum + :delta where p.id = :id")
+  int foldLikesNum(@Param("id") Long id, @Param("delta") int delta);
+
+  @Modifying
+  @Query("update Post p set p.commentsNum = p.commentsNum + :delta where p.id = :id")
+  int addCommentsNum(@Param("id") Long id, @Param("delta") int delta);
+
+  @Modifying
+  @Query("update Post p set p.version = p.version + 1 where p.id = :id")
+  int increaseVersion(@Param("id") Long id);
+
+  // 엔티티를 읽지 않고 ETag 비교
+  @Query("select p.version from Post p where p.id = :id")
+  Optional<Long> findVersionById(@Param("id") Long id);
+
+  // 비동기 업로드 결과 반영, 그 사이 다른 이미지로 바뀌었거나 삭제된 게시글이면 0
+  // 커밋 후 콜백에서도 호출되므로 항상 새 트랜잭션
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  @Modifying
+  @Query("update Post p set p.imageHash = :imageHash,"
+      + " p.imgUrl = :imgUrl, p.mediumUrl = :mediumUrl, p.thumbnailUrl = :thumbnailUrl, p.imageStatus = :imageStatus,"
+      + " p.version = p.version + 1"
+      + " where p.id = :id and p.imageUploadId = :imageUploadId")
+  int updateImage(@Param("id") Long id, @Param("imageUploadId") String imageUploadId, @Param("imageHash") String imageHash,
+      @Param("imgUrl") String imgUrl, @Param("mediumUrl") String mediumUrl, @Param("thumbnailUrl") String thumbnailUrl,
+      @Param("imageStatus") ImageStatus imageStatus);
+
+  // 수정, 삭제할 게시글을 잠가서 읽는다
+  // 비동기 업로드의 updateImage 는 커밋까지 기다렸다가 바뀐 imageUploadId 에 걸려 0 을 반환한다
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select p from Post p where p.id = :id")
+  Optional<Post> findByIdForUpdate(@Param("id") Long id);
+
+  // 댓글이 없는 게시글 id (anti-join), afterId 이후부터 id 순
+  @Query("select p.id from Post p where p.id > :afterId"
+      + " and not exists (select c.id from Comment c where c.post = p)"
+      + " order by p.id")
+  List<Long> findIdsWithoutComments(@Param("afterId") Long afterId, Pageable pageable);
+
+  // 삭제 직전에 잠근 채로 다시 확인 (조회 후 댓글이 달린 게시글 제외)
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select p from Post p where p.id in :ids"
+      + " and not exists (select c.id from Comment c where c.post = p)")
+  List<Post> findAllWithoutCommentsByIdIn(@Param("ids") List<Long> ids);
+
+  @Query("select coalesce(max(p.id), 0) from Post p")
+  long findMaxId();
+
+  // 댓글 수가 실제와 다른 게시글 보정
+  @Transactional
+  @Modifying
+  @Query("update Post p set p.commentsNum = (select count(c) from Comment c where c.post = p), p.version = p.version + 1"
+      + " where p.id between :fromId and :toId"
+      + " and p.commentsNum <> (select count(c) from Comment c where c.post = p)")
+  int reconcileCommentsNum(@Param("fromId") Long fromId, @Param("toId") Long toId);
 }
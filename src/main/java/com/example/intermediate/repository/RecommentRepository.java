@@ -1,13 +1,42 @@
 package com.example.intermediate.repository;
 
+import com.example.intermediate.controller.response.mypage.RecommentListMypageDto;
 import com.example.intermediate.domain.Comment;
 import com.example.intermediate.domain.Member;
 import com.example.intermediate.domain.Recomment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface RecommentRepository extends JpaRepository<Recomment, Long> {
+
+    // 마이페이지 목록용 projection (r: 대댓글, m: 대댓글 작성자)
+    String MYPAGE_SELECT = "select new com.example.intermediate.controller.response.mypage.RecommentListMypageDto("
+            + "r.id, r.comment.id, r.post.id, m.nickname, r.content, r.likesNum, r.createdAt, r.modifiedAt)";
+
     List<Recomment> findAllByComment(Comment comment);
     List<Recomment> findAllByMember(Member member);
+
+    @Query(MYPAGE_SELECT + " from Recomment r join r.member m where m.id = :memberId and r.id > :afterId order by r.id")
+    List<RecommentListMypageDto> findMypageByMemberId(@Param("memberId") Long memberId, @Param("afterId") Long afterId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = PostRepository.STREAM_FETCH_SIZE))
+    @Query(MYPAGE_SELECT + " from Recomment r join r.member m where m.id = :memberId order by r.id")
+    Stream<RecommentListMypageDto> streamMypageByMemberId(@Param("memberId") Long memberId);
+
+    @Modifying
+    @Query("update Recomment r set r.likesNum = r.likesNum + :delta where r.id = :id")
+    int addLikesNum(@Param("id") Long id, @Param("delta") int delta);
+
+    @Query("select r from Recomment r join fetch r.member where r.comment.post.id = :postId order by r.id")
+    List<Recomment> findAllWithMemberByPostId(@Param("postId") Long postId);
 }
@@ -0,0 +1,42 @@
+package com.example.intermediate.repository;
+
+import com.example.intermediate.domain.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+// 시각은 서버 간 시계 차이가 없도록 모두 DB 의 now() 기준
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    // 만료된 lease 를 가져온다, 다른 서버가 가지고 있거나 행이 없으면 0
+    @Transactional
+    @Modifying
+    @Query(value = "update scheduler_lock set locked_by = :owner, locked_at = now(),"
+            + " locked_until = timestampadd(second, :ttl, now())"
+            + " where name = :name and locked_until <= now()", nativeQuery = true)
+    int acquire(@Param("name") String name, @Param("owner") String owner, @Param("ttl") long ttlSeconds);
+
+    // 처음 실행되는 작업, 동시에 다른 서버가 넣었으면 DataIntegrityViolationException
+    @Transactional
+    @Modifying
+    @Query(value = "insert into scheduler_lock (name, locked_by, locked_at, locked_until)"
+            + " values (:name, :owner, now(), timestampadd(second, :ttl, now()))", nativeQuery = true)
+    int insert(@Param("name") String name, @Param("owner") String owner, @Param("ttl") long ttlSeconds);
+
+    // 아직 내 lease 일 때만 연장, 이미 만료되어 빼앗겼으면 0
+    @Transactional
+    @Modifying
+    @Query(value = "update scheduler_lock set locked_until = timestampadd(second, :ttl, now())"
+            + " where name = :name and locked_by = :owner and locked_until > now()", nativeQuery = true)
+    int extend(@Param("name") String name, @Param("owner") String owner, @Param("ttl") long ttlSeconds);
+
+    // 작업이 끝나도 시작한 뒤 minHold 초까지는 lease 를 남겨 둔다
+    // 다른 서버가 같은 cron 시각에 조금 늦게 깨어나 방금 끝난 작업을 다시 실행하지 않도록
+    @Transactional
+    @Modifying
+    @Query(value = "update scheduler_lock set locked_until = greatest(now(), timestampadd(second, :minHold, locked_at))"
+            + " where name = :name and locked_by = :owner", nativeQuery = true)
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("minHold") long minHoldSeconds);
+}
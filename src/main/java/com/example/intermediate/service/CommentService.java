@@ -1,22 +1,23 @@
 package com.example.intermediate.service;
 
 import com.example.intermediate.controller.response.PostResponseDto;
-import com.example.intermediate.controller.response.RecommentResponseDto;
 import com.example.intermediate.controller.response.ResponseDto;
 import com.example.intermediate.controller.response.CommentResponseDto;
+import com.example.intermediate.controller.response.CommentTreeProvider;
 import com.example.intermediate.domain. Comment;
 import com.example.intermediate.domain.Member;
 import com.example.intermediate.domain.Post;
 import com.example.intermediate.controller.request.CommentRequestDto;
-import com.example.intermediate.domain.Recomment;
+import com.example.intermediate.event.CommentCreated;
+import com.example.intermediate.event.CommentDeleted;
+import com.example.intermediate.event.DomainEventBus;
 import com.example.intermediate.jwt.TokenProvider;
 import com.example.intermediate.repository.CommentRepository;
-import java.util.ArrayList;
+import com.example.intermediate.repository.PostRepository;
 import java.util.List;
 import java.util.Optional;
 import javax.servlet.http.HttpServletRequest;
 
-import com.example.intermediate.repository.RecommentRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,10 +27,13 @@ import org.springframework.transaction.annotation.Transactional;
 public class CommentService {
 
   private final CommentRepository commentRepository;
-  private final RecommentRepository recommentRepository;
+  private final PostRepository postRepository;
 
   private final TokenProvider tokenProvider;
   private final PostService postService;
+  private final CommentTreeProvider commentTreeProvider;
+  private final PostVersionService postVersionService;
+  private final DomainEventBus domainEventBus;
 
   @Transactional
   public ResponseDto<?> createComment(CommentRequestDto requestDto, HttpServletRequest request) {
@@ -55,6 +59,9 @@ public class CommentService {
         .content(requestDto.getContent())
         .build();
     commentRepository.save(comment);
+    postRepository.addCommentsNum(post.getId(), 1);
+    postVersionService.increase(post.getId());
+    domainEventBus.publish(new CommentCreated(post.getId(), comment.getId()));
     return ResponseDto.success(
         CommentResponseDto.builder()
             .id(comment.getId())
@@ -74,38 +81,7 @@ public class CommentService {
       return ResponseDto.fail("NOT_FOUND", "존재하지 않는 게시글 id 입니다.");
     }
 
-    List<Comment> commentList = commentRepository.findAllByPost(post);
-    List<CommentResponseDto> commentResponseDtoList = new ArrayList<>();
-
-    for (Comment comment : commentList) {
-
-      List<Recomment> recommentList = recommentRepository.findAllByComment(comment);
-      List<RecommentResponseDto> recommentResponseDtoList = new ArrayList<>();
-      for(Recomment recomment : recommentList){
-        recommentResponseDtoList.add(
-                RecommentResponseDto.builder()
-                        .id(recomment.getId())
-                        .author(recomment.getMember().getNickname())
-                        .content(recomment.getContent())
-                        .likesNum(recomment.getLikesNum())
-                        .createdAt(recomment.getCreatedAt())
-                        .modifiedAt(recomment.getModifiedAt())
-                        .build()
-        );
-      }
-
-      commentResponseDtoList.add(
-          CommentResponseDto.builder()
-              .id(comment.getId())
-              .author(comment.getMember().getNickname())
-              .content(comment.getContent())
-              .likesNum(comment.getLikesNum())
-              .recommentResponseDtoList(recommentResponseDtoList)
-              .createdAt(comment.getCreatedAt())
-              .modifiedAt(comment.getModifiedAt())
-              .build()
-      );
-    }
+    List<CommentResponseDto> commentResponseDtoList = commentTreeProvider.getCommentTree(post.getId());
     return ResponseDto.success(commentResponseDtoList);
   }
 
@@ -141,6 +117,7 @@ public class CommentService {
     }
 
     comment.update(requestDto);
+    postVersionService.increase(comment.getPost().getId());
     return ResponseDto.success(
         CommentResponseDto.builder()
             .id(comment.getId())
@@ -179,6 +156,9 @@ public class CommentService {
     }
 
     commentRepository.delete(comment);
+    postRepository.addCommentsNum(comment.getPost().getId(), -1);
+    postVersionService.increase(comment.getPost().getId());
+    domainEventBus.publish(new CommentDeleted(comment.getPost().getId(), comment.getId()));
     return ResponseDto.success("success");
   }
 
@@ -0,0 +1,53 @@
+package com.example.intermediate.service;
+
+import com.example.intermediate.repository.CommentRepository;
+import com.example.intermediate.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// 게시글 댓글 수(commentsNum), 댓글 대댓글 수(recommentsNum) 보정 작업
+// counter.reconcile.enabled=true 로 기동하면 한 번 실행된다.
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class CounterReconciler {
+
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+
+    @Value("${counter.reconcile.enabled:false}")
+    private boolean enabled;
+
+    @Value("${counter.reconcile.batch-size:1000}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        if (enabled) {
+            reconcile();
+        }
+    }
+
+    public void reconcile() {
+        long startedAt = System.currentTimeMillis();
+
+        // id 구간 단위로 나누어 각각 짧은 트랜잭션으로 보정
+        int posts = 0;
+        long maxPostId = postRepository.findMaxId();
+        for (long fromId = 1; fromId <= maxPostId; fromId += batchSize) {
+            posts += postRepository.reconcileCommentsNum(fromId, fromId + batchSize - 1);
+        }
+
+        int comments = 0;
+        long maxCommentId = commentRepository.findMaxId();
+        for (long fromId = 1; fromId <= maxCommentId; fromId += batchSize) {
+            comments += commentRepository.reconcileRecommentsNum(fromId, fromId + batchSize - 1);
+        }
+
+        log.info("카운터 보정 완료 - 게시글 {}건, 댓글 {}건 ({}ms)", posts, comments, System.currentTimeMillis() - startedAt);
+    }
+}
@@ -0,0 +1,360 @@
+package com.example.intermediate.service;
+
+import com.example.intermediate.controller.response.PostListResponseDto;
+import com.example.intermediate.event.CommentCreated;
+import com.example.intermediate.event.CommentDeleted;
+import com.example.intermediate.event.DomainEvent;
+import com.example.intermediate.event.DomainEventSubscriber;
+import com.example.intermediate.event.LikeToggled;
+import com.example.intermediate.event.PostDeleted;
+import com.example.intermediate.event.RecommentCreated;
+import com.example.intermediate.event.RecommentDeleted;
+import com.example.intermediate.repository.PostRepository;
+import com.example.intermediate.shared.LikeTargetType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// 인기 게시글 순위 (서버마다 메모리에서 계산)
+// 좋아요, 댓글, 대댓글이 생기면 게시글 점수에 가중치를 더하고, 점수는 반감기마다 절반으로 줄어든다
+// 모든 점수가 같은 비율로 줄어들므로 epoch 기준 2^(경과 시간 / 반감기) 를 곱해 더해 두고, 값이 커지면 epoch 를 옮긴다
+// 상위 K 개는 이벤트마다 heap 에 반영하고, 응답용 목록은 주기적으로 한 번의 쿼리로 만들어 둔다 (조회 시 DB 를 읽지 않음)
+// 좋아요, 댓글, 대댓글, 게시글 삭제는 DomainEventBus 로 커밋 후에 전달받는다
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class HotPostRanker implements DomainEventSubscriber {
+
+    private static final double LIKE_WEIGHT = 1;
+    private static final double COMMENT_WEIGHT = 3;
+    private static final double RECOMMENT_WEIGHT = 2;
+
+    private static final int STRIPES = 16;
+
+    // epoch 이후 반감기가 이만큼 지나면 점수를 줄여 epoch 를 옮긴다 (double 범위 안에서)
+    private static final double MAX_HALF_LIVES = 64;
+
+    private final PostRepository postRepository;
+
+    @Value("${hot.half-life-minutes:360}")
+    private long halfLifeMinutes;
+
+    @Value("${hot.size:100}")
+    private int size;
+
+    // 지금 기준 점수가 이보다 작아진 게시글은 지운다
+    @Value("${hot.min-score:0.01}")
+    private double minScore;
+
+    // 기동할 때 좋아요 수, 댓글 수로 점수를 채울 최근 게시글 수
+    @Value("${hot.seed-limit:10000}")
+    private int seedLimit;
+
+    private final LongDoubleMap[] stripes = new LongDoubleMap[STRIPES];
+    // epoch 를 옮기는 동안에는 점수를 더하지 않는다
+    private final ReentrantReadWriteLock epochLock = new ReentrantReadWriteLock();
+    private TopK topK;
+    private volatile long epochMillis;
+    private volatile List<PostListResponseDto> hotPosts = Collections.emptyList();
+
+    @PostConstruct
+    public void init() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new LongDoubleMap(1024);
+        }
+        topK = new TopK(size);
+        epochMillis = System.currentTimeMillis();
+    }
+
+    // 최근에 수정된 게시글의 좋아요 수, 댓글 수를 수정 시각에 생긴 것으로 보고 점수를 채운다
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        long now = System.currentTimeMillis();
+        LocalDateTime since = LocalDateTime.now().minusMinutes(halfLifeMinutes * 4);
+        List<PostListResponseDto> postList = postRepository.findFeedModifiedAfter(since, PageRequest.of(0, seedLimit));
+        for (PostListResponseDto post : postList) {
+            double weight = post.getLikesNum() * LIKE_WEIGHT + post.getCommentsNum() * COMMENT_WEIGHT;
+            if (weight > 0) {
+                long at = Math.min(now, post.getModifiedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+                record(post.getId(), weight, at);
+            }
+        }
+        refresh();
+        log.info("인기 게시글 점수 초기화 - 게시글 {}건", postList.size());
+    }
+
+    @Override
+    public String getSubscriberName() {
+        return "hotPostRanker";
+    }
+
+    @Override
+    public boolean accepts(DomainEvent event) {
+        return event instanceof LikeToggled && ((LikeToggled) event).getTargetType() == LikeTargetType.POST
+                || event instanceof CommentCreated || event instanceof CommentDeleted
+                || event instanceof RecommentCreated || event instanceof RecommentDeleted
+                || event instanceof PostDeleted;
+    }
+
+    @Override
+    public void onEvents(List<DomainEvent> events) {
+        long now = System.currentTimeMillis();
+        for (DomainEvent event : events) {
+            if (event instanceof LikeToggled) {
+                LikeToggled likeToggled = (LikeToggled) event;
+                record(likeToggled.getTargetId(), likeToggled.isLiked() ? LIKE_WEIGHT : -LIKE_WEIGHT, now);
+            } else if (event instanceof CommentCreated) {
+                record(((CommentCreated) event).getPostId(), COMMENT_WEIGHT, now);
+            } else if (event instanceof CommentDeleted) {
+                record(((CommentDeleted) event).getPostId(), -COMMENT_WEIGHT, now);
+            } else if (event instanceof RecommentCreated) {
+                record(((RecommentCreated) event).getPostId(), RECOMMENT_WEIGHT, now);
+            } else if (event instanceof RecommentDeleted) {
+                record(((RecommentDeleted) event).getPostId(), -RECOMMENT_WEIGHT, now);
+            } else if (event instanceof PostDeleted) {
+                removeAll(((PostDeleted) event).getPostIds());
+            }
+        }
+    }
+
+    void record(long postId, double weight, long at) {
+        LongDoubleMap stripe = stripe(postId);
+        epochLock.readLock().lock();
+        try {
+            double growth = Math.pow(2, (double) (at - epochMillis) / halfLifeMillis());
+            double score;
+            synchronized (stripe) {
+                score = stripe.add(postId, weight * growth);
+            }
+            topK.offer(postId, score);
+        } finally {
+            epochLock.readLock().unlock();
+        }
+    }
+
+    private void removeAll(Collection<Long> postIds) {
+        for (Long postId : postIds) {
+            LongDoubleMap stripe = stripe(postId);
+            synchronized (stripe) {
+                stripe.remove(postId);
+            }
+            topK.remove(postId);
+        }
+    }
+
+    // 점수 순으로 최대 limit 개
+    public List<PostListResponseDto> getHotPosts(int limit) {
+        List<PostListResponseDto> posts = hotPosts;
+        return posts.size() <= limit ? posts : posts.subList(0, limit);
+    }
+
+    // 순위가 바뀌었으면 응답용 목록을 다시 만든다
+    @Scheduled(fixedDelayString = "${hot.refresh-interval-ms:10000}")
+    public void refresh() {
+        long[] postIds = topK.takeIfChanged();
+        if (null == postIds) {
+            return;
+        }
+
+        List<Long> ids = new ArrayList<>(postIds.length);
+        for (long postId : postIds) {
+            ids.add(postId);
+        }
+        Map<Long, PostListResponseDto> rows = ids.isEmpty() ? Collections.emptyMap()
+                : postRepository.findFeedByIdIn(ids).stream()
+                        .collect(Collectors.toMap(PostListResponseDto::getId, Function.identity()));
+        List<PostListResponseDto> posts = new ArrayList<>(ids.size());
+        for (Long postId : ids) {
+            PostListResponseDto row = rows.get(postId);
+            if (null != row) {
+                posts.add(row);
+            }
+        }
+        hotPosts = Collections.unmodifiableList(posts);
+    }
+
+    // 오래된 점수를 지우고, epoch 를 옮기고, 상위 K 개를 전체 점수에서 다시 고른다
+    // 점수가 줄어든 (좋아요 취소, 댓글 삭제) 게시글 대신 들어가야 할 게시글은 이때 반영된다
+    @Scheduled(fixedDelayString = "${hot.rescan-interval-ms:60000}")
+    public void rescan() {
+        long now = System.currentTimeMillis();
+        double halfLives = (double) (now - epochMillis) / halfLifeMillis();
+        boolean rebase = halfLives > MAX_HALF_LIVES;
+        if (rebase) {
+            epochLock.writeLock().lock();
+        }
+        try {
+            double factor = rebase ? Math.pow(2, -halfLives) : 1;
+            double min = rebase ? minScore : minScore * Math.pow(2, halfLives);
+            TopK rescanned = new TopK(size);
+            for (LongDoubleMap stripe : stripes) {
+                synchronized (stripe) {
+                    stripe.scaleAndPrune(factor, min);
+                    stripe.forEach(rescanned::offer);
+                }
+            }
+            if (rebase) {
+                epochMillis = now;
+            }
+            topK.replaceWith(rescanned);
+        } finally {
+            if (rebase) {
+                epochLock.writeLock().unlock();
+            }
+        }
+    }
+
+    private long halfLifeMillis() {
+        return halfLifeMinutes * 60_000;
+    }
+
+    private LongDoubleMap stripe(long postId) {
+        return stripes[(int) (postId ^ (postId >>> 32)) & (STRIPES - 1)];
+    }
+
+    // 점수 상위 K 개의 min-heap, 게시글 id 별 위치를 함께 두어 점수가 바뀐 게시글을 제자리로 옮긴다
+    static final class TopK {
+
+        private final int capacity;
+        private long[] postIds;
+        private double[] scores;
+        private final Map<Long, Integer> positions = new HashMap<>();
+        private int count;
+        private boolean changed;
+
+        TopK(int capacity) {
+            this.capacity = capacity;
+            postIds = new long[capacity];
+            scores = new double[capacity];
+        }
+
+        synchronized void offer(long postId, double score) {
+            Integer position = positions.get(postId);
+            if (null != position) {
+                double previous = scores[position];
+                scores[position] = score;
+                if (score > previous) {
+                    siftDown(position);
+                } else {
+                    siftUp(position);
+                }
+                changed = true;
+            } else if (count < capacity) {
+                set(count, postId, score);
+                siftUp(count++);
+                changed = true;
+            } else if (capacity > 0 && score > scores[0]) {
+                positions.remove(postIds[0]);
+                set(0, postId, score);
+                siftDown(0);
+                changed = true;
+            }
+        }
+
+        synchronized void remove(long postId) {
+            Integer position = positions.remove(postId);
+            if (null == position) {
+                return;
+            }
+            count--;
+            if (position != count) {
+                set(position, postIds[count], scores[count]);
+                siftDown(position);
+                siftUp(position);
+            }
+            changed = true;
+        }
+
+        synchronized void replaceWith(TopK other) {
+            synchronized (other) {
+                postIds = other.postIds;
+                scores = other.scores;
+                positions.clear();
+                positions.putAll(other.positions);
+                count = other.count;
+                changed = true;
+            }
+        }
+
+        // 바뀐 것이 없으면 null, 있으면 점수가 높은 순의 게시글 id
+        synchronized long[] takeIfChanged() {
+            if (!changed) {
+                return null;
+            }
+            changed = false;
+
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(scores[b], scores[a]));
+            long[] ranked = new long[count];
+            for (int i = 0; i < count; i++) {
+                ranked[i] = postIds[order[i]];
+            }
+            return ranked;
+        }
+
+        private void siftUp(int position) {
+            while (position > 0) {
+                int parent = (position - 1) / 2;
+                if (scores[parent] <= scores[position]) {
+                    break;
+                }
+                swap(parent, position);
+                position = parent;
+            }
+        }
+
+        private void siftDown(int position) {
+            while (true) {
+                int smallest = position;
+                int left = position * 2 + 1;
+                int right = left + 1;
+                if (left < count && scores[left] < scores[smallest]) {
+                    smallest = left;
+                }
+                if (right < count && scores[right] < scores[smallest]) {
+                    smallest = right;
+                }
+                if (smallest == position) {
+                    return;
+                }
+                swap(smallest, position);
+                position = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long postId = postIds[a];
+            double score = scores[a];
+            set(a, postIds[b], scores[b]);
+            set(b, postId, score);
+        }
+
+        private void set(int position, long postId, double score) {
+            postIds[position] = postId;
+            scores[position] = score;
+            positions.put(postId, position);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.intermediate.service;
+
+import com.example.intermediate.domain.ImageBlob;
+import com.example.intermediate.repository.ImageBlobRepository;
+import com.example.intermediate.shared.ImageVariant;
+import com.example.intermediate.uril.S3Uploader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// 내용 기반 키(images/{sha256})로 저장한 이미지의 참조 수 관리와 GC
+// 참조 수는 업로드를 시작할 때 올리고, 게시글이 삭제되거나 이미지가 바뀌면 내린다
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class ImageBlobService {
+
+    private static final String DIR_NAME = "images";
+    private static final int GC_BATCH_SIZE = 100;
+    private static final String GC_JOB = "image-blob-gc";
+    // GC 가 지우는 중인 blob 의 행이 사라질 때까지 확인하는 간격과 횟수
+    private static final long DELETING_POLL_MS = 100;
+    private static final int DELETING_POLL_ATTEMPTS = 100;
+
+    private final ImageBlobRepository imageBlobRepository;
+    private final S3Uploader s3Uploader;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerLockService schedulerLockService;
+
+    // 원본은 images/{hash}, 축소본은 images/{variant}/{hash}
+    public String getFileName(String hash, ImageVariant variant) {
+        if (null == variant) {
+            return DIR_NAME + "/" + hash;
+        }
+        return DIR_NAME + "/" + variant.name().toLowerCase() + "/" + hash;
+    }
+
+    // 참조를 하나 늘리고 blob 반환, url 이 null 이면 아직 업로드된 적이 없다
+    // GC 가 지우는 중인 blob 이면 S3 삭제가 끝나고 행이 지워진 뒤 새로 만든다
+    public ImageBlob addReference(String hash) {
+        for (int attempt = 1; ; attempt++) {
+            imageBlobRepository.addReference(hash);
+            ImageBlob imageBlob = imageBlobRepository.findById(hash).orElse(null);
+            if (null != imageBlob && !imageBlob.isDeleting()) {
+                return imageBlob;
+            }
+            if (attempt >= DELETING_POLL_ATTEMPTS) {
+                throw new IllegalStateException("삭제 중인 image blob 입니다. " + hash);
+            }
+            sleep(DELETING_POLL_MS);
+        }
+    }
+
+    public void complete(String hash, String url, String mediumUrl, String thumbnailUrl) {
+        imageBlobRepository.updateUrls(hash, url, mediumUrl, thumbnailUrl);
+    }
+
+    // 호출한 쪽의 트랜잭션에 참여
+    public void release(String hash) {
+        if (null != hash) {
+            imageBlobRepository.release(hash, 1);
+        }
+    }
+
+    // 게시글 여러 개의 참조를 이미지별로 묶어 한 번씩 내린다
+    public void releaseAll(List<String> hashes) {
+        hashes.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
+                .forEach((hash, count) -> imageBlobRepository.release(hash, count.intValue()));
+    }
+
+    // 참조가 없는 blob 의 S3 객체와 행을 지운다, S3 삭제가 실패하면 남은 blob 은 다음 주기에 다시 시도
+    @Scheduled(fixedDelayString = "${image.blob.gc-interval-ms:600000}")
+    public void collectGarbage() {
+        schedulerLockService.runLocked(GC_JOB, this::deleteUnreferenced);
+    }
+
+    private void deleteUnreferenced() {
+        int total = 0;
+        int deleted;
+        do {
+            if (!schedulerLockService.isHeld(GC_JOB)) {
+                log.warn("lease 를 잃어 이미지 GC 를 {}건 삭제 후 멈춥니다.", total);
+                return;
+            }
+            // 짧은 트랜잭션으로 삭제 표시만 하고 커밋, S3 는 잠금 없이 지운다
+            List<String> hashes = transactionTemplate.execute(status -> {
+                List<String> unreferenced = imageBlobRepository.findAllUnreferenced(PageRequest.of(0, GC_BATCH_SIZE))
+                        .stream()
+                        .map(ImageBlob::getHash)
+                        .collect(Collectors.toList());
+                if (!unreferenced.isEmpty()) {
+                    imageBlobRepository.markDeleting(unreferenced);
+                }
+                return unreferenced;
+            });
+            for (String hash : hashes) {
+                s3Uploader.delete(getFileName(hash, null));
+                for (ImageVariant variant : ImageVariant.values()) {
+                    s3Uploader.delete(getFileName(hash, variant));
+                }
+                imageBlobRepository.deleteDeleting(hash);
+            }
+            deleted = hashes.size();
+            total += deleted;
+        } while (deleted == GC_BATCH_SIZE);
+
+        if (total > 0) {
+            log.info("참조가 없는 이미지 {}건 삭제", total);
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("image blob 참조 대기가 중단되었습니다.", e);
+        }
+    }
+}
@@ -2,8 +2,11 @@ package com.example.intermediate.service;
 
 import com.example.intermediate.controller.response.ResponseDto;
 import com.example.intermediate.domain.*;
+import com.example.intermediate.event.DomainEventBus;
+import com.example.intermediate.event.LikeToggled;
 import com.example.intermediate.jwt.TokenProvider;
 import com.example.intermediate.repository.*;
+import com.example.intermediate.shared.LikeTargetType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,6 +24,11 @@ public class LikeService {
     private final PostRepository postRepository;
     private final CommentRepository commentRepository;
     private final RecommentRepository recommentRepository;
+    private final PostLikeCounter postLikeCounter;
+    private final LikeWriteBuffer likeWriteBuffer;
+    private final PostDetailCache postDetailCache;
+    private final PostVersionService postVersionService;
+    private final DomainEventBus domainEventBus;
 
     @Transactional
     public ResponseDto<?> likePost(Long id, HttpServletRequest request) {
@@ -39,28 +47,35 @@ public class LikeService {
             return ResponseDto.fail("INVALID_TOKEN", "Token이 유효하지 않습니다.");
         }
 
-        Post post = postRepository.findById(id).orElse(null);
-
-        if (post == null){
+        if (!postRepository.existsById(id)){
             return ResponseDto.fail("NOT_FOUND", "존재하지 않는 게시글 id 입니다.");
         }
 
-        LikePost likePost = likePostRepository.findLikePostByMemberAndPost(member,post).orElse(null);
+        // 좋아요 수가 바뀌므로 게시글 상세 캐시 무효화 (커밋 후)
+        postDetailCache.evict(id);
+
+        if (likeWriteBuffer.isEnabled()) {
+            Boolean liked = likeWriteBuffer.toggle(member.getId(), LikeTargetType.POST, id,
+                    () -> likePostRepository.existsByMemberIdAndPostId(member.getId(), id));
+            if (null != liked) {
+                domainEventBus.publish(new LikeToggled(LikeTargetType.POST, id, liked));
+                return ResponseDto.success(liked ? "post like success" : "successfully deleted post like");
+            }
+        }
 
-        if (likePost == null){
-            LikePost saveLikePost = LikePost.builder()
-                    .member(member)
-                    .post(post)
-                    .build();
-            likePostRepository.save(saveLikePost);
-            post.like();
-            return ResponseDto.success("post like success");
-        } else {
-            likePostRepository.delete(likePost);
-            post.unlike();
+        // 좋아요 삭제를 먼저 시도하고, 지운 행이 없으면 추가 (좋아요 수는 SQL 에서 원자적으로 증감)
+        if (likePostRepository.deleteByMemberIdAndPostId(member.getId(), id) > 0) {
+            postLikeCounter.add(id, -1);
+            domainEventBus.publish(new LikeToggled(LikeTargetType.POST, id, false));
             return ResponseDto.success("successfully deleted post like");
         }
 
+        if (likePostRepository.insertIfAbsent(member.getId(), id) > 0) {
+            postLikeCounter.add(id, 1);
+            domainEventBus.publish(new LikeToggled(LikeTargetType.POST, id, true));
+        }
+        return ResponseDto.success("post like success");
+
     }
 
     @Transactional
@@ -81,27 +96,37 @@ public class LikeService {
         }
 
 
-        Comment comment =  commentRepository.findById(id).orElse(null);
-
-        if (comment == null){
+        Comment comment = commentRepository.findById(id).orElse(null);
+        if (null == comment){
             return ResponseDto.fail("NOT_FOUND", "존재하지 않는 댓글 id 입니다.");
         }
 
-        LikeCo likeComment = likeCoRepository.findLikeCoByMemberAndComment(member,comment).orElse(null);
+        // 게시글 id 는 프록시에서 바로 꺼낸다 (게시글 조회 없음)
+        Long postId = comment.getPost().getId();
+        postDetailCache.evict(postId);
+
+        if (likeWriteBuffer.isEnabled()) {
+            Boolean liked = likeWriteBuffer.toggle(member.getId(), LikeTargetType.COMMENT, id,
+                    () -> likeCoRepository.existsByMemberIdAndCommentId(member.getId(), id));
+            if (null != liked) {
+                domainEventBus.publish(new LikeToggled(LikeTargetType.COMMENT, id, liked));
+                return ResponseDto.success(liked ? "comment like success" : "successfully deleted comment like");
+            }
+        }
 
-        if (likeComment == null){
-            LikeCo saveLikeComment = LikeCo.builder()
-                    .member(member)
-                    .comment(comment)
-                    .build();
-            likeCoRepository.save(saveLikeComment);
-            comment.like();
-            return ResponseDto.success("comment like success");
-        } else {
-            likeCoRepository.delete(likeComment);
-            comment.unlike();
+        if (likeCoRepository.deleteByMemberIdAndCommentId(member.getId(), id) > 0) {
+            commentRepository.addLikesNum(id, -1);
+            postVersionService.increase(postId);
+            domainEventBus.publish(new LikeToggled(LikeTargetType.COMMENT, id, false));
             return ResponseDto.success("successfully deleted comment like");
         }
+
+        if (likeCoRepository.insertIfAbsent(member.getId(), id) > 0) {
+            commentRepository.addLikesNum(id, 1);
+            postVersionService.increase(postId);
+            domainEventBus.publish(new LikeToggled(LikeTargetType.COMMENT, id, true));
+        }
+        return ResponseDto.success("comment like success");
     }
 
     @Transactional
@@ -122,27 +147,36 @@ public class LikeService {
         }
 
 
-        Recomment recomment =  recommentRepository.findById(id).orElse(null);
-
-        if (recomment == null){
+        Recomment recomment = recommentRepository.findById(id).orElse(null);
+        if (null == recomment){
             return ResponseDto.fail("NOT_FOUND", "존재하지 않는 대댓글 id 입니다.");
         }
 
-        LikeReco likeReco = likeRecoRepository.findLikePostByMemberAndRecomment(member,recomment).orElse(null);
+        Long postId = recomment.getPost().getId();
+        postDetailCache.evict(postId);
 
-        if (likeReco == null){
-            LikeReco saveLikeRecomment = LikeReco.builder()
-                    .member(member)
-                    .recomment(recomment)
-                    .build();
-            likeRecoRepository.save(saveLikeRecomment);
-            recomment.like();
-            return ResponseDto.success("recomment like success");
-        } else {
-            likeRecoRepository.delete(likeReco);
-            recomment.unlike();
+        if (likeWriteBuffer.isEnabled()) {
+            Boolean liked = likeWriteBuffer.toggle(member.getId(), LikeTargetType.RECOMMENT, id,
+                    () -> likeRecoRepository.existsByMemberIdAndRecommentId(member.getId(), id));
+            if (null != liked) {
+                domainEventBus.publish(new LikeToggled(LikeTargetType.RECOMMENT, id, liked));
+                return ResponseDto.success(liked ? "recomment like success" : "successfully deleted recomment like");
+            }
+        }
+
+        if (likeRecoRepository.deleteByMemberIdAndRecommentId(member.getId(), id) > 0) {
+            recommentRepository.addLikesNum(id, -1);
+            postVersionService.increase(postId);
+            domainEventBus.publish(new LikeToggled(LikeTargetType.RECOMMENT, id, false));
             return ResponseDto.success("successfully deleted recomment like");
         }
+
+        if (likeRecoRepository.insertIfAbsent(member.getId(), id) > 0) {
+            recommentRepository.addLikesNum(id, 1);
+            postVersionService.increase(postId);
+            domainEventBus.publish(new LikeToggled(LikeTargetType.RECOMMENT, id, true));
+        }
+        return ResponseDto.success("recomment like success");
     }
 
 
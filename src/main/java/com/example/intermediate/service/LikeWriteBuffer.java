@@ -0,0 +1,416 @@
+package com.example.intermediate.service;
+
+import com.example.intermediate.shared.LikeTargetType;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+// 좋아요 write-behind 버퍼 (like.write-behind.enabled=true 일 때 사용)
+// (회원, 대상 종류, 대상 id) 별 최종 좋아요 상태만 메모리에 모아 두었다가
+// 주기적으로 또는 일정 건수가 쌓이면 JDBC batch 로 한 번에 반영한다.
+// 게시글 버전(ETag)도 반영할 때 올라가므로 조건부 요청에는 반영 주기만큼 늦게 보인다.
+// 게시글 좋아요 수는 동기 처리와 같이 PostLikeCounter 로 증감한다.
+// 커밋과 버퍼 정리 사이에 읽은 상세 응답은 같은 좋아요를 두 번 세므로, 정리한 뒤 반영한 게시글의 상세 캐시를 지운다.
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class LikeWriteBuffer {
+
+    private static final int STRIPES = 64;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PostLikeCounter postLikeCounter;
+    private final PostDetailCache postDetailCache;
+
+    @Value("${like.write-behind.enabled:false}")
+    private boolean enabled;
+
+    // 버퍼에 보관할 수 있는 최대 건수 (초과하면 동기 처리)
+    @Value("${like.write-behind.max-pending:100000}")
+    private int maxPending;
+
+    // 이 건수만큼 좋아요가 쌓이면 주기를 기다리지 않고 반영
+    @Value("${like.write-behind.flush-threshold:1000}")
+    private int flushThreshold;
+
+    // 한 번에 반영하는 최대 건수
+    @Value("${like.write-behind.max-flush-size:5000}")
+    private int maxFlushSize;
+
+    private final Stripe[] stripes = createStripes();
+    private final Map<Target, Integer> pendingDeltas = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicInteger eventsSinceFlush = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor();
+    private volatile boolean closed;
+
+    public boolean isEnabled() {
+        return enabled && !closed;
+    }
+
+    // 좋아요 상태를 뒤집고 결과 상태를 반환, 버퍼에 담을 수 없으면 null (호출한 쪽에서 동기 처리)
+    // persistedLike 는 DB 에 저장된 좋아요 여부 조회
+    public Boolean toggle(Long memberId, LikeTargetType type, Long targetId, BooleanSupplier persistedLike) {
+        LikeKey key = new LikeKey(memberId, new Target(type, targetId));
+        Stripe stripe = stripes[Math.floorMod(key.hashCode(), STRIPES)];
+
+        Boolean liked = null;
+        while (null == liked) {
+            long removals;
+            synchronized (stripe) {
+                PendingLike pending = stripe.entries.get(key);
+                if (null != pending) {
+                    liked = flip(key, pending);
+                    break;
+                }
+                if (!isEnabled() || pendingCount.get() >= maxPending) {
+                    return null;
+                }
+                removals = stripe.removals;
+            }
+
+            // DB 조회는 잠금 밖에서, 그 사이 같은 stripe 의 반영이 끝났으면 다시 조회
+            boolean persisted = persistedLike.getAsBoolean();
+            synchronized (stripe) {
+                PendingLike pending = stripe.entries.get(key);
+                if (null == pending && removals == stripe.removals) {
+                    pending = new PendingLike(persisted);
+                    stripe.entries.put(key, pending);
+                    pendingCount.incrementAndGet();
+                }
+                if (null != pending) {
+                    liked = flip(key, pending);
+                }
+            }
+        }
+
+        if (eventsSinceFlush.incrementAndGet() >= flushThreshold) {
+            requestFlush();
+        }
+        return liked;
+    }
+
+    // 아직 DB 에 반영되지 않은 좋아요 증감
+    public int getPendingDelta(LikeTargetType type, Long targetId) {
+        return pendingDeltas.getOrDefault(new Target(type, targetId), 0);
+    }
+
+    @Scheduled(fixedDelayString = "${like.write-behind.flush-interval-ms:1000}")
+    public void scheduledFlush() {
+        if (enabled) {
+            flush();
+        }
+    }
+
+    // 반영한 건수 반환
+    public int flush() {
+        flushLock.lock();
+        try {
+            eventsSinceFlush.set(0);
+            List<Snapshot> snapshots = snapshot();
+            if (snapshots.isEmpty()) {
+                return 0;
+            }
+
+            // 반영한 좋아요가 보이는 게시글, 버퍼를 정리한 뒤에 상세 캐시를 지운다
+            Set<Long> postIds = new HashSet<>();
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(snapshots, postIds));
+                for (Snapshot snapshot : snapshots) {
+                    complete(snapshot, true);
+                }
+            } catch (DataAccessException e) {
+                // 삭제된 대상 등으로 batch 가 실패하면 한 건씩 반영하고 실패한 건은 버린다
+                log.warn("좋아요 batch 반영 실패, 건별로 재시도합니다. {}", e.getMessage());
+                for (Snapshot snapshot : snapshots) {
+                    boolean written = true;
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> write(List.of(snapshot), postIds));
+                    } catch (DataAccessException ex) {
+                        log.warn("좋아요 반영 실패 {} : {}", snapshot.key, ex.getMessage());
+                        written = false;
+                    }
+                    complete(snapshot, written);
+                }
+            }
+            postDetailCache.evictAll(postIds);
+            return snapshots.size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // 종료 시 남은 좋아요를 모두 반영
+    @PreDestroy
+    public void close() {
+        closed = true;
+        flushExecutor.shutdown();
+        if (!enabled) {
+            return;
+        }
+        while (pendingCount.get() > 0) {
+            if (flush() == 0) {
+                break;
+            }
+        }
+        log.info("좋아요 버퍼 종료, 미반영 {}건", pendingCount.get());
+    }
+
+    private void requestFlush() {
+        if (!closed && flushRequested.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        }
+    }
+
+    private boolean flip(LikeKey key, PendingLike pending) {
+        pending.liked = !pending.liked;
+        pending.version++;
+        addPendingDelta(key.target, pending.liked ? 1 : -1);
+        return pending.liked;
+    }
+
+    // 합이 0 이 되면 제거
+    private void addPendingDelta(Target target, int delta) {
+        pendingDeltas.merge(target, delta, (sum, value) -> sum + value == 0 ? null : sum + value);
+    }
+
+    private List<Snapshot> snapshot() {
+        List<Snapshot> snapshots = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Iterator<Map.Entry<LikeKey, PendingLike>> iterator = stripe.entries.entrySet().iterator();
+                while (iterator.hasNext() && snapshots.size() < maxFlushSize) {
+                    Map.Entry<LikeKey, PendingLike> entry = iterator.next();
+                    PendingLike pending = entry.getValue();
+                    if (pending.liked == pending.persisted) {
+                        // 좋아요 후 취소처럼 상쇄된 경우 DB 에 쓸 필요 없음
+                        iterator.remove();
+                        stripe.removals++;
+                        pendingCount.decrementAndGet();
+                        continue;
+                    }
+                    snapshots.add(new Snapshot(entry.getKey(), pending.liked, pending.version));
+                }
+            }
+            if (snapshots.size() >= maxFlushSize) {
+                break;
+            }
+        }
+        return snapshots;
+    }
+
+    private void write(List<Snapshot> snapshots, Set<Long> postIds) {
+        for (LikeTargetType type : LikeTargetType.values()) {
+            List<Snapshot> typeSnapshots = new ArrayList<>();
+            for (Snapshot snapshot : snapshots) {
+                if (snapshot.key.target.type == type) {
+                    typeSnapshots.add(snapshot);
+                }
+            }
+            if (typeSnapshots.isEmpty()) {
+                continue;
+            }
+            postIds.addAll(findPostIds(type, typeSnapshots));
+
+            // 저장된 좋아요를 잠그고 읽어서 실제로 바뀌는 행만 쓴다
+            Set<LikeKey> existing = findExisting(type, typeSnapshots);
+            List<Object[]> inserts = new ArrayList<>();
+            List<Object[]> deletes = new ArrayList<>();
+            for (Snapshot snapshot : typeSnapshots) {
+                boolean exists = existing.contains(snapshot.key);
+                if (snapshot.liked && !exists) {
+                    inserts.add(new Object[]{snapshot.key.memberId, snapshot.key.target.id});
+                } else if (!snapshot.liked && exists) {
+                    deletes.add(new Object[]{snapshot.key.memberId, snapshot.key.target.id});
+                }
+            }
+
+            Map<Long, Integer> deltas = new HashMap<>();
+            int[] inserted = jdbcTemplate.batchUpdate(
+                    "insert ignore into " + type.getLikeTable() + " (member_id, " + type.getTargetColumn() + ") values (?, ?)",
+                    inserts);
+            addDeltas(deltas, inserts, inserted, 1);
+            int[] deleted = jdbcTemplate.batchUpdate(
+                    "delete from " + type.getLikeTable() + " where member_id = ? and " + type.getTargetColumn() + " = ?",
+                    deletes);
+            addDeltas(deltas, deletes, deleted, -1);
+
+            if (type == LikeTargetType.POST) {
+                // 분산 카운터를 쓰는 경우도 한 곳에서 세도록, 게시글 버전도 함께 올라간다
+                deltas.forEach((postId, delta) -> {
+                    if (delta != 0) {
+                        postLikeCounter.add(postId, delta);
+                    }
+                });
+                continue;
+            }
+
+            List<Object[]> updates = new ArrayList<>();
+            deltas.forEach((targetId, delta) -> {
+                if (delta != 0) {
+                    updates.add(new Object[]{delta, targetId});
+                }
+            });
+            jdbcTemplate.batchUpdate(
+                    "update " + type.getTargetTable() + " set likes_num = likes_num + ? where id = ?", updates);
+
+            // 좋아요 수가 바뀐 댓글, 대댓글이 속한 게시글의 버전 증가 (ETag)
+            List<Object[]> targetIds = new ArrayList<>();
+            for (Object[] update : updates) {
+                targetIds.add(new Object[]{update[1]});
+            }
+            jdbcTemplate.batchUpdate("update post set version = version + 1 where id = (select post_id from "
+                    + type.getTargetTable() + " where id = ?)", targetIds);
+        }
+    }
+
+    // 대상이 속한 게시글 id
+    private List<Long> findPostIds(LikeTargetType type, List<Snapshot> snapshots) {
+        Set<Long> targetIds = new LinkedHashSet<>();
+        for (Snapshot snapshot : snapshots) {
+            targetIds.add(snapshot.key.target.id);
+        }
+        if (type == LikeTargetType.POST) {
+            return new ArrayList<>(targetIds);
+        }
+        return jdbcTemplate.queryForList("select distinct post_id from " + type.getTargetTable()
+                + " where id in (" + placeholders(targetIds.size()) + ")", Long.class, targetIds.toArray());
+    }
+
+    // 반영할 건의 회원, 대상 중 이미 저장된 좋아요 (for update 로 반영이 끝날 때까지 잠금)
+    private Set<LikeKey> findExisting(LikeTargetType type, List<Snapshot> snapshots) {
+        Set<Long> memberIds = new LinkedHashSet<>();
+        Set<Long> targetIds = new LinkedHashSet<>();
+        for (Snapshot snapshot : snapshots) {
+            memberIds.add(snapshot.key.memberId);
+            targetIds.add(snapshot.key.target.id);
+        }
+        List<Object> args = new ArrayList<>(memberIds);
+        args.addAll(targetIds);
+
+        Set<LikeKey> existing = new HashSet<>();
+        jdbcTemplate.query("select member_id, " + type.getTargetColumn() + " from " + type.getLikeTable()
+                        + " where member_id in (" + placeholders(memberIds.size()) + ")"
+                        + " and " + type.getTargetColumn() + " in (" + placeholders(targetIds.size()) + ") for update",
+                rs -> {
+                    existing.add(new LikeKey(rs.getLong(1), new Target(type, rs.getLong(2))));
+                }, args.toArray());
+        return existing;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private void addDeltas(Map<Long, Integer> deltas, List<Object[]> rows, int[] counts, int sign) {
+        for (int i = 0; i < rows.size(); i++) {
+            // rewriteBatchedStatements 처럼 드라이버가 건수를 알려주지 않으면(SUCCESS_NO_INFO) 모든 건이 -2 로 온다
+            // 이 경우는 잠그고 읽은 상태로 바뀔 행만 골랐으므로 반영된 것으로 본다
+            if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                deltas.merge((Long) rows.get(i)[1], sign, Integer::sum);
+            }
+        }
+    }
+
+    // 반영이 끝난 건을 버퍼에서 정리, 그 사이 다시 바뀐 건은 남겨 둔다
+    private void complete(Snapshot snapshot, boolean written) {
+        Stripe stripe = stripes[Math.floorMod(snapshot.key.hashCode(), STRIPES)];
+        synchronized (stripe) {
+            PendingLike pending = stripe.entries.get(snapshot.key);
+            boolean changed = pending.version != snapshot.version;
+            if (!written && changed) {
+                return;
+            }
+
+            addPendingDelta(snapshot.key.target, snapshot.liked ? -1 : 1);
+            if (changed) {
+                pending.persisted = snapshot.liked;
+            } else {
+                stripe.entries.remove(snapshot.key);
+                stripe.removals++;
+                pendingCount.decrementAndGet();
+            }
+        }
+    }
+
+    private static Stripe[] createStripes() {
+        Stripe[] stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+        return stripes;
+    }
+
+    private static class Stripe {
+        private final Map<LikeKey, PendingLike> entries = new HashMap<>();
+        private long removals;
+    }
+
+    private static class PendingLike {
+        private boolean persisted;
+        private boolean liked;
+        private long version;
+
+        private PendingLike(boolean persisted) {
+            this.persisted = persisted;
+            this.liked = persisted;
+        }
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Target {
+        private final LikeTargetType type;
+        private final Long id;
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class LikeKey {
+        private final Long memberId;
+        private final Target target;
+
+        @Override
+        public String toString() {
+            return target.type + "#" + target.id + " member " + memberId;
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class Snapshot {
+        private final LikeKey key;
+        private final boolean liked;
+        private final long version;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.intermediate.service;
+
+import java.util.Arrays;
+
+// long 키, double 값의 open addressing (linear probing) 해시맵, 키 0 은 빈 칸이라 쓸 수 없다
+// 동기화하지 않는다
+final class LongDoubleMap {
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private double[] values;
+    private int size;
+
+    LongDoubleMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        keys = new long[capacity];
+        values = new double[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    // 없으면 0
+    double get(long key) {
+        int slot = find(key);
+        return keys[slot] == key ? values[slot] : 0;
+    }
+
+    // 없으면 0 에 더한다, 더한 뒤의 값을 반환
+    double add(long key, double delta) {
+        int slot = find(key);
+        if (keys[slot] != key) {
+            if (size + 1 > keys.length * LOAD_FACTOR) {
+                resize(keys.length * 2);
+                slot = find(key);
+            }
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] += delta;
+        return values[slot];
+    }
+
+    boolean remove(long key) {
+        int slot = find(key);
+        if (keys[slot] != key) {
+            return false;
+        }
+        // 뒤에 이어진 항목을 당겨 probing 이 끊기지 않게 한다
+        int mask = keys.length - 1;
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = 0;
+        values[gap] = 0;
+        size--;
+        return true;
+    }
+
+    void forEach(Entry entry) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                entry.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    // 모든 값에 factor 를 곱하고, 그 결과가 min 보다 작은 항목은 지운다
+    void scaleAndPrune(double factor, double min) {
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+        keys = new long[oldKeys.length];
+        values = new double[oldKeys.length];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            double value = oldValues[i] * factor;
+            if (oldKeys[i] != 0 && value >= min) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = value;
+                size++;
+            }
+        }
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = slot(key);
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & (keys.length - 1);
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+        keys = new long[capacity];
+        values = new double[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    interface Entry {
+        void accept(long key, double value);
+    }
+}
@@ -1,23 +1,25 @@
 package com.example.intermediate.service;
 
 import com.example.intermediate.controller.response.*;
-import com.example.intermediate.controller.response.mypage.PostListMyPageDto;
-import com.example.intermediate.controller.response.mypage.CommentListMyPageDto;
-import com.example.intermediate.controller.response.mypage.RecommentListMypageDto;
+import com.example.intermediate.controller.response.mypage.MypageStreamWriter;
 import com.example.intermediate.controller.response.mypage.ResponseMypageDto;
 import com.example.intermediate.domain.*;
 import com.example.intermediate.controller.request.LoginRequestDto;
 import com.example.intermediate.controller.request.MemberRequestDto;
+import com.example.intermediate.controller.request.MypageRequestDto;
 import com.example.intermediate.controller.request.TokenDto;
 import com.example.intermediate.jwt.TokenProvider;
 import com.example.intermediate.repository.*;
 
-import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -44,15 +46,14 @@ public class MemberService {
 
   private final TokenProvider tokenProvider;
 
-  private final ListResponseProvider listResponse;
+  private final MypageReader mypageReader;
 
-  @Transactional
-  public ResponseDto<?> createMember(MemberRequestDto requestDto) {
-    if (null != isPresentMember(requestDto.getNickname())) {
-      return ResponseDto.fail("DUPLICATED_NICKNAME",
-          "중복된 닉네임 입니다.");
-    }
+  private final UserDetailsServiceImpl userDetailsService;
+
+  private final MypageStreamWriter mypageStreamWriter;
 
+  // 닉네임 중복은 unique 제약으로 확인, 위반 시 트랜잭션이 rollback-only 가 되지 않도록 저장소 트랜잭션만 사용
+  public ResponseDto<?> createMember(MemberRequestDto requestDto) {
     if (!requestDto.getPassword().equals(requestDto.getPasswordConfirm())) {
       return ResponseDto.fail("PASSWORDS_NOT_MATCHED",
           "비밀번호와 비밀번호 확인이 일치하지 않습니다.");
@@ -62,7 +63,15 @@ public class MemberService {
             .nickname(requestDto.getNickname())
                 .password(passwordEncoder.encode(requestDto.getPassword()))
                     .build();
-    memberRepository.save(member);
+    try {
+      memberRepository.saveAndFlush(member);
+    } catch (DataIntegrityViolationException e) {
+      if (!isDuplicatedNickname(e)) {
+        throw e;
+      }
+      return ResponseDto.fail("DUPLICATED_NICKNAME",
+          "중복된 닉네임 입니다.");
+    }
     return ResponseDto.success(
         MemberResponseDto.builder()
             .id(member.getId())
@@ -73,6 +82,16 @@ public class MemberService {
     );
   }
 
+  // 제약 이름 표기가 DB 마다 달라서 (MySQL 은 member.uk_member_nickname) 포함 여부로 확인
+  private static boolean isDuplicatedNickname(DataIntegrityViolationException e) {
+    if (!(e.getCause() instanceof ConstraintViolationException)) {
+      return false;
+    }
+    String constraintName = ((ConstraintViolationException) e.getCause()).getConstraintName();
+    return null != constraintName
+        && constraintName.toLowerCase(Locale.ROOT).contains(Member.NICKNAME_UNIQUE_CONSTRAINT);
+  }
+
   @Transactional
   public ResponseDto<?> login(LoginRequestDto requestDto, HttpServletResponse response) {
     Member member = isPresentMember(requestDto.getNickname());
@@ -85,6 +104,7 @@ public class MemberService {
       return ResponseDto.fail("INVALID_MEMBER", "사용자를 찾을 수 없습니다.");
     }
 
+    userDetailsService.evict(member.getNickname());
     TokenDto tokenDto = tokenProvider.generateTokenDto(member);
     tokenToHeaders(tokenDto, response);
 
@@ -108,10 +128,11 @@ public class MemberService {
           "사용자를 찾을 수 없습니다.");
     }
 
+    userDetailsService.evict(member.getNickname());
     return tokenProvider.deleteRefreshToken(member);
   }
 
-  public ResponseMypageDto mypageWrite(HttpServletRequest request) {
+  public ResponseMypageDto mypageWrite(HttpServletRequest request, MypageRequestDto pageRequest) {
     if (null == request.getHeader("Refresh-Token")) {
       return ResponseMypageDto.fail("MEMBER_NOT_FOUND",
               "로그인이 필요합니다.");
@@ -127,23 +148,11 @@ public class MemberService {
       return ResponseMypageDto.fail("INVALID_TOKEN", "Token이 유효하지 않습니다.");
     }
 
-    String nickname = member.getNickname();
-    // 사용자가 작성한 게시글 리스트
-    List<Post> writePosts = postRepository.findAllByMember(member);
-    List<PostListMyPageDto> postListMypageDtos = listResponse.getPostListMypage(writePosts, nickname);
-    
-    // 사용자가 작성한 댓글 리스트
-    List<Comment> writeComments = commentRepository.findAllByMember(member);
-    List<CommentListMyPageDto> commentListMyPageDtos = listResponse.getCommentListMypage(writeComments, nickname);
-    
-    // 사용자가 작성한 대댓글 리스트
-    List<Recomment> writeRecomments = recommentRepository.findAllByMember(member);
-    List<RecommentListMypageDto> recommentListMypageDtos = listResponse.getRecommentListMypage(writeRecomments,nickname);
-
-    return ResponseMypageDto.success(postListMypageDtos,commentListMyPageDtos,recommentListMypageDtos);
+    // 사용자가 작성한 게시글, 댓글, 대댓글 리스트
+    return mypageReader.readWrites(member.getId(), pageRequest);
   }
 
-  public ResponseMypageDto mypageLike(HttpServletRequest request) {
+  public ResponseMypageDto mypageLike(HttpServletRequest request, MypageRequestDto pageRequest) {
     if (null == request.getHeader("Refresh-Token")) {
       return ResponseMypageDto.fail("MEMBER_NOT_FOUND",
               "로그인이 필요합니다.");
@@ -159,20 +168,44 @@ public class MemberService {
       return ResponseMypageDto.fail("INVALID_TOKEN", "Token이 유효하지 않습니다.");
     }
 
+    // 사용자가 좋아요한 게시글, 댓글, 대댓글 리스트
+    return mypageReader.readLikes(member.getId(), pageRequest);
+  }
+
+  // 스트리밍 모드의 mypageWrite, 로그인 확인 후 작성한 글을 읽는 대로 응답에 쓴다
+  public ResponseEntity<?> streamMypageWrite(HttpServletRequest request) {
+    if (null == request.getHeader("Refresh-Token") || null == request.getHeader("Authorization")) {
+      return ResponseEntity.ok(ResponseMypageDto.fail("MEMBER_NOT_FOUND", "로그인이 필요합니다."));
+    }
+
+    Member member = validateMember(request);
+    if (null == member) {
+      return ResponseEntity.ok(ResponseMypageDto.fail("INVALID_TOKEN", "Token이 유효하지 않습니다."));
+    }
 
-    // 사용자가 좋아요한 게시글 리스트
-    List<LikePost> likePosts = likePostRepository.findAllByMember(member);
-    List<PostListMyPageDto> postListMypageDtos = listResponse.getLikePosts(likePosts);
+    Long memberId = member.getId();
+    return mypageStreamWriter.stream(
+        () -> postRepository.streamMypageByMemberId(memberId),
+        () -> commentRepository.streamMypageByMemberId(memberId),
+        () -> recommentRepository.streamMypageByMemberId(memberId));
+  }
 
-    // 사용자가 좋아요한 댓글 리스트
-    List<LikeCo> likeComments = likeCoRepository.findAllByMember(member);
-    List<CommentListMyPageDto> commentListMyPageDtos = listResponse.getLikeComments(likeComments);
+  // 스트리밍 모드의 mypageLike
+  public ResponseEntity<?> streamMypageLike(HttpServletRequest request) {
+    if (null == request.getHeader("Refresh-Token") || null == request.getHeader("Authorization")) {
+      return ResponseEntity.ok(ResponseMypageDto.fail("MEMBER_NOT_FOUND", "로그인이 필요합니다."));
+    }
 
-    // 사용자가 좋아요한 대댓글 리스트
-    List<LikeReco> likeRecomments = likeRecoRepository.findAllByMember(member);
-    List<RecommentListMypageDto> recommentListMypageDtos = listResponse.getLikeRecomments(likeRecomments);
+    Member member = validateMember(request);
+    if (null == member) {
+      return ResponseEntity.ok(ResponseMypageDto.fail("INVALID_TOKEN", "Token이 유효하지 않습니다."));
+    }
 
-    return ResponseMypageDto.success(postListMypageDtos,commentListMyPageDtos,recommentListMypageDtos);
+    Long memberId = member.getId();
+    return mypageStreamWriter.stream(
+        () -> likePostRepository.streamMypageByMemberId(memberId),
+        () -> likeCoRepository.streamMypageByMemberId(memberId),
+        () -> likeRecoRepository.streamMypageByMemberId(memberId));
   }
 
   @Transactional
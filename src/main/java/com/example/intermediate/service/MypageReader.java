@@ -0,0 +1,212 @@
+package com.example.intermediate.service;
+
+import com.example.intermediate.controller.request.MypageRequestDto;
+import com.example.intermediate.controller.response.mypage.CommentListMyPageDto;
+import com.example.intermediate.controller.response.mypage.PostListMyPageDto;
+import com.example.intermediate.controller.response.mypage.RecommentListMypageDto;
+import com.example.intermediate.controller.response.mypage.ResponseMypageDto;
+import com.example.intermediate.repository.CommentRepository;
+import com.example.intermediate.repository.LikeCoRepository;
+import com.example.intermediate.repository.LikePostRepository;
+import com.example.intermediate.repository.LikeRecoRepository;
+import com.example.intermediate.repository.PostRepository;
+import com.example.intermediate.repository.RecommentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+// 마이페이지 목록 조회
+// 목록마다 대상과 작성자를 join 한 projection 쿼리 한 번으로 한 페이지를 읽는다 (좋아요 수, 댓글 수는 카운터 컬럼)
+// 목록은 대상 id 순, 이전 페이지의 마지막 id 를 커서로 받는다
+// 세 목록은 서로 독립적이라 조회 스레드에서 각자의 읽기 전용 트랜잭션 (커넥션) 으로 동시에 읽는다
+// 목록 조회는 조회 스레드에서만 하므로 마이페이지가 쓰는 커넥션은 threads 개를 넘지 않는다
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class MypageReader {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final RecommentRepository recommentRepository;
+    private final LikePostRepository likePostRepository;
+    private final LikeCoRepository likeCoRepository;
+    private final LikeRecoRepository likeRecoRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    // 목록 조회 스레드 수, 마이페이지 조회가 동시에 쓰는 커넥션 수의 상한
+    @Value("${mypage.read.threads:6}")
+    private int threads;
+
+    // 대기열이 가득 차면 요청 스레드에서 읽지 않고 바로 실패 응답
+    @Value("${mypage.read.queue-capacity:60}")
+    private int queueCapacity;
+
+    // 목록 조회를 시작한 뒤 기다리는 최대 시간, 넘으면 실패 응답
+    @Value("${mypage.read.timeout-ms:3000}")
+    private long timeoutMs;
+
+    private ThreadPoolExecutor executor;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "mypage-read-" + threadNumber.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        // 시간이 지난 뒤에도 끝나지 않는 쿼리는 statement timeout 으로 끊는다
+        readOnlyTransaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMs)));
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    // 회원이 작성한 게시글, 댓글, 대댓글
+    public ResponseMypageDto readWrites(Long memberId, MypageRequestDto pageRequest) {
+        int size = getPageSize(pageRequest);
+        long deadline = getDeadline();
+        Future<Section<PostListMyPageDto>> posts = null;
+        Future<Section<CommentListMyPageDto>> comments = null;
+        Future<Section<RecommentListMypageDto>> recomments = null;
+        try {
+            posts = submit(
+                    (afterId, pageable) -> postRepository.findMypageByMemberId(memberId, afterId, pageable),
+                    pageRequest.getPostCursor(), size, PostListMyPageDto::getPostId);
+            comments = submit(
+                    (afterId, pageable) -> commentRepository.findMypageByMemberId(memberId, afterId, pageable),
+                    pageRequest.getCommentCursor(), size, CommentListMyPageDto::getCommentId);
+            recomments = submit(
+                    (afterId, pageable) -> recommentRepository.findMypageByMemberId(memberId, afterId, pageable),
+                    pageRequest.getRecommentCursor(), size, RecommentListMypageDto::getRecommentId);
+        } catch (RejectedExecutionException e) {
+            return busy(posts, comments, recomments);
+        }
+        return join(deadline, posts, comments, recomments);
+    }
+
+    // 회원이 좋아요한 게시글, 댓글, 대댓글
+    public ResponseMypageDto readLikes(Long memberId, MypageRequestDto pageRequest) {
+        int size = getPageSize(pageRequest);
+        long deadline = getDeadline();
+        Future<Section<PostListMyPageDto>> posts = null;
+        Future<Section<CommentListMyPageDto>> comments = null;
+        Future<Section<RecommentListMypageDto>> recomments = null;
+        try {
+            posts = submit(
+                    (afterId, pageable) -> likePostRepository.findMypageByMemberId(memberId, afterId, pageable),
+                    pageRequest.getPostCursor(), size, PostListMyPageDto::getPostId);
+            comments = submit(
+                    (afterId, pageable) -> likeCoRepository.findMypageByMemberId(memberId, afterId, pageable),
+                    pageRequest.getCommentCursor(), size, CommentListMyPageDto::getCommentId);
+            recomments = submit(
+                    (afterId, pageable) -> likeRecoRepository.findMypageByMemberId(memberId, afterId, pageable),
+                    pageRequest.getRecommentCursor(), size, RecommentListMypageDto::getRecommentId);
+        } catch (RejectedExecutionException e) {
+            return busy(posts, comments, recomments);
+        }
+        return join(deadline, posts, comments, recomments);
+    }
+
+    private static int getPageSize(MypageRequestDto pageRequest) {
+        return Math.min(Math.max(pageRequest.getSize(), 1), MAX_PAGE_SIZE);
+    }
+
+    // 대기열에서 기다린 시간도 포함하도록 첫 조회를 넣기 전에 정한다
+    private long getDeadline() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    }
+
+    // 대기열이 가득 찼으면 이미 넣은 조회는 취소하고 실패 응답
+    private ResponseMypageDto busy(Future<?>... started) {
+        for (Future<?> future : started) {
+            if (null != future) {
+                future.cancel(true);
+            }
+        }
+        log.warn("마이페이지 조회 대기열이 가득 찼습니다.");
+        return ResponseMypageDto.fail("MYPAGE_BUSY", "조회 요청이 많습니다. 잠시 후 다시 시도해 주세요.");
+    }
+
+    private <T> Future<Section<T>> submit(BiFunction<Long, Pageable, List<T>> query, Long cursor, int size,
+                                          Function<T, Long> idGetter) {
+        return executor.submit(() -> readOnlyTransaction.execute(status -> readSection(query, cursor, size, idGetter)));
+    }
+
+    // 다음 페이지 존재 여부 확인을 위해 한 건 더 조회
+    private static <T> Section<T> readSection(BiFunction<Long, Pageable, List<T>> query, Long cursor, int size,
+                                              Function<T, Long> idGetter) {
+        List<T> list = query.apply(null == cursor ? 0L : cursor, PageRequest.of(0, size + 1));
+        if (list.size() <= size) {
+            return new Section<>(list, null);
+        }
+        list = list.subList(0, size);
+        return new Section<>(list, idGetter.apply(list.get(size - 1)));
+    }
+
+    // 세 목록 모두 deadline 안에 끝나야 한다
+    private ResponseMypageDto join(long deadline,
+                                   Future<Section<PostListMyPageDto>> posts,
+                                   Future<Section<CommentListMyPageDto>> comments,
+                                   Future<Section<RecommentListMypageDto>> recomments) {
+        try {
+            Section<PostListMyPageDto> postSection = await(posts, deadline);
+            Section<CommentListMyPageDto> commentSection = await(comments, deadline);
+            Section<RecommentListMypageDto> recommentSection = await(recomments, deadline);
+            return ResponseMypageDto.success(postSection.list, commentSection.list, recommentSection.list,
+                    postSection.nextCursor, commentSection.nextCursor, recommentSection.nextCursor);
+        } catch (TimeoutException e) {
+            log.warn("마이페이지 조회가 {}ms 안에 끝나지 않았습니다.", timeoutMs);
+            return ResponseMypageDto.fail("REQUEST_TIMEOUT", "조회 시간이 초과되었습니다.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseMypageDto.fail("REQUEST_TIMEOUT", "조회 시간이 초과되었습니다.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            // 실패했으면 남은 조회는 중단
+            posts.cancel(true);
+            comments.cancel(true);
+            recomments.cancel(true);
+        }
+    }
+
+    private static <T> T await(Future<T> future, long deadline)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        return future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @RequiredArgsConstructor
+    private static class Section<T> {
+        private final List<T> list;
+        private final Long nextCursor;
+    }
+}
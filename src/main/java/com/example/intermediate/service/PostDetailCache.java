@@ -0,0 +1,34 @@
+package com.example.intermediate.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+// 게시글 상세 캐시 (PostService.getPost 응답) 무효화
+// 게시글, 댓글, 대댓글, 좋아요가 바뀌면 그 게시글 id 만 지운다, 트랜잭션 안에서 호출하면 커밋 후
+@RequiredArgsConstructor
+@Component
+public class PostDetailCache {
+
+    public static final String CACHE_NAME = "postDetail";
+
+    private final CacheManager cacheManager;
+
+    public void evict(Long postId) {
+        getCache().evict(postId);
+    }
+
+    public void evictAll(Collection<Long> postIds) {
+        Cache cache = getCache();
+        for (Long postId : postIds) {
+            cache.evict(postId);
+        }
+    }
+
+    private Cache getCache() {
+        return cacheManager.getCache(CACHE_NAME);
+    }
+}
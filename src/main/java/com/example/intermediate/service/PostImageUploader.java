@@ -0,0 +1,295 @@
+package com.example.intermediate.service;
+
+import com.example.intermediate.controller.response.SerializedResponseCache;
+import com.example.intermediate.domain.ImageBlob;
+import com.example.intermediate.repository.PostRepository;
+import com.example.intermediate.shared.ImageStatus;
+import com.example.intermediate.shared.ImageVariant;
+import com.example.intermediate.uril.ImageResizer;
+import com.example.intermediate.uril.S3Uploader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 게시글 이미지를 트랜잭션 밖에서 축소본과 함께 S3 에 올리고 끝나면 이미지 URL 을 채운다
+// 같은 내용의 이미지는 ImageBlobService 로 한 번만 저장
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class PostImageUploader {
+
+    private final S3Uploader s3Uploader;
+    private final ImageResizer imageResizer;
+    private final ImageBlobService imageBlobService;
+    private final PostRepository postRepository;
+    private final PostDetailCache postDetailCache;
+    private final SerializedResponseCache serializedResponseCache;
+
+    @Value("${image.upload.threads:4}")
+    private int threads;
+
+    // 원본과 축소본을 동시에 올리는 스레드 수
+    @Value("${image.upload.variant-threads:8}")
+    private int variantThreads;
+
+    @Value("${image.upload.queue-capacity:100}")
+    private int queueCapacity;
+
+    // 임시 파일로 받아 둔 채 업로드를 기다리는 이미지의 최대 총 크기
+    @Value("${image.upload.max-in-flight-bytes:268435456}")
+    private int maxInFlightBytes;
+
+    @Value("${image.upload.max-attempts:3}")
+    private int maxAttempts;
+
+    // 재시도 간격, 시도마다 두 배
+    @Value("${image.upload.backoff-ms:500}")
+    private long backoffMs;
+
+    private ThreadPoolExecutor executor;
+    private ExecutorService variantExecutor;
+    private Semaphore inFlightBytes;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "post-image-upload-" + threadNumber.incrementAndGet()));
+        AtomicInteger variantThreadNumber = new AtomicInteger();
+        variantExecutor = Executors.newFixedThreadPool(variantThreads,
+                runnable -> new Thread(runnable, "post-image-variant-" + variantThreadNumber.incrementAndGet()));
+        inFlightBytes = new Semaphore(maxInFlightBytes);
+    }
+
+    // 트랜잭션 안에서 이미지를 임시 파일로 옮겨 둔다, 업로드 용량이 가득 차 있으면 null
+    // 롤백되거나 uploadAfterCommit 이 호출되지 않으면 커밋 후 그대로 버린다
+    public PendingImage prepare(MultipartFile image) throws IOException {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("이미지 업로드는 트랜잭션 안에서 준비해야 합니다.");
+        }
+
+        // DB 연결을 잡은 채 기다리지 않도록 용량이 없으면 바로 실패
+        long size = image.getSize();
+        if (size > maxInFlightBytes || !inFlightBytes.tryAcquire((int) size)) {
+            log.info("이미지 업로드 대기 용량 초과 {} bytes", size);
+            return null;
+        }
+
+        // multipart 임시 파일은 요청이 끝나면 지워지므로 따로 옮겨 두고, 옮긴 파일을 읽으면서 SHA-256 을 계산
+        PendingImage pendingImage;
+        Path file = null;
+        try {
+            file = Files.createTempFile("post-image-", ".upload");
+            image.transferTo(file);
+            String hash;
+            try (DigestInputStream inputStream = new DigestInputStream(Files.newInputStream(file), sha256())) {
+                inputStream.transferTo(OutputStream.nullOutputStream());
+                hash = String.format("%064x", new BigInteger(1, inputStream.getMessageDigest().digest()));
+            }
+            pendingImage = new PendingImage(hash, image.getContentType(), file, Files.size(file), (int) size);
+        } catch (IOException | RuntimeException e) {
+            inFlightBytes.release((int) size);
+            deleteQuietly(file);
+            throw e;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED && null != pendingImage.postId) {
+                    submit(pendingImage);
+                } else {
+                    release(pendingImage);
+                }
+            }
+        });
+        return pendingImage;
+    }
+
+    // 커밋되면 postId 게시글의 이미지로 업로드
+    public void uploadAfterCommit(PendingImage pendingImage, Long postId) {
+        pendingImage.postId = postId;
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("이미지 업로드 {}건이 끝나지 않은 채 종료합니다.", executor.getQueue().size() + executor.getActiveCount());
+        }
+        variantExecutor.shutdown();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void submit(PendingImage pendingImage) {
+        try {
+            executor.execute(() -> upload(pendingImage));
+        } catch (RejectedExecutionException e) {
+            log.warn("이미지 업로드 대기열이 가득 찼습니다. post {}", pendingImage.postId);
+            release(pendingImage);
+            postRepository.updateImage(pendingImage.postId, pendingImage.uploadId, null, null, null, null, ImageStatus.FAILED);
+            postDetailCache.evict(pendingImage.postId);
+            serializedResponseCache.invalidateFeed();
+        }
+    }
+
+    // 같은 내용의 이미지가 이미 있으면 그대로 쓰고, 없으면 원본과 축소본을 나눠 동시에 올린다
+    // 실패하면 참조를 내리고 FAILED, 올라간 객체는 참조가 없으면 GC 가 지운다
+    private void upload(PendingImage pendingImage) {
+        String hash = pendingImage.hash;
+        Map<ImageVariant, CompletableFuture<String>> variantUrls = new EnumMap<>(ImageVariant.class);
+        try {
+            ImageBlob imageBlob = imageBlobService.addReference(hash);
+            try {
+                String url = imageBlob.getUrl();
+                String mediumUrl = imageBlob.getMediumUrl();
+                String thumbnailUrl = imageBlob.getThumbnailUrl();
+                if (null == url) {
+                    imageResizer.resize(pendingImage.file).forEach((variant, resized) -> variantUrls.put(variant,
+                            CompletableFuture.supplyAsync(() -> upload(resized.getBytes(), resized.getContentType(),
+                                    imageBlobService.getFileName(hash, variant)), variantExecutor)));
+                    url = upload(pendingImage.file, pendingImage.length, pendingImage.contentType,
+                            imageBlobService.getFileName(hash, null));
+                    mediumUrl = variantUrls.containsKey(ImageVariant.MEDIUM) ? variantUrls.get(ImageVariant.MEDIUM).join() : url;
+                    thumbnailUrl = variantUrls.containsKey(ImageVariant.THUMBNAIL) ? variantUrls.get(ImageVariant.THUMBNAIL).join() : url;
+                    imageBlobService.complete(hash, url, mediumUrl, thumbnailUrl);
+                }
+
+                if (postRepository.updateImage(pendingImage.postId, pendingImage.uploadId, hash,
+                        url, mediumUrl, thumbnailUrl, ImageStatus.DONE) == 0) {
+                    // 그 사이 게시글이 삭제되었거나 다른 이미지로 바뀜
+                    imageBlobService.release(hash);
+                }
+            } catch (RuntimeException e) {
+                CompletableFuture.allOf(variantUrls.values().toArray(new CompletableFuture<?>[0]))
+                        .handle((result, ex) -> null)
+                        .join();
+                imageBlobService.release(hash);
+                throw e;
+            }
+        } catch (RuntimeException e) {
+            log.warn("이미지 업로드 실패 post {} : {}", pendingImage.postId, e.getMessage());
+            postRepository.updateImage(pendingImage.postId, pendingImage.uploadId, null, null, null, null, ImageStatus.FAILED);
+        } finally {
+            postDetailCache.evict(pendingImage.postId);
+            serializedResponseCache.invalidateFeed();
+            release(pendingImage);
+        }
+    }
+
+    private String upload(byte[] bytes, String contentType, String fileName) {
+        return upload(() -> new ByteArrayInputStream(bytes), bytes.length, contentType, fileName);
+    }
+
+    // 시도마다 파일을 처음부터 다시 읽는다
+    private String upload(Path file, long length, String contentType, String fileName) {
+        return upload(() -> Files.newInputStream(file), length, contentType, fileName);
+    }
+
+    private String upload(InputStreamSource source, long length, String contentType, String fileName) {
+        for (int attempt = 1; ; attempt++) {
+            try (InputStream inputStream = source.getInputStream()) {
+                return s3Uploader.upload(inputStream, length, contentType, fileName);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                log.info("이미지 업로드 재시도 {}/{} {}", attempt, maxAttempts, fileName);
+                sleep(backoffMs << (attempt - 1));
+            }
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("이미지 업로드가 중단되었습니다.", e);
+        }
+    }
+
+    private void release(PendingImage pendingImage) {
+        // 파일이 지워졌으면 용량도 돌아와 있도록 permit 을 먼저 반환
+        if (pendingImage.released.compareAndSet(false, true)) {
+            inFlightBytes.release(pendingImage.permits);
+            deleteQuietly(pendingImage.file);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        if (null == file) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("임시 이미지 파일 삭제 실패 {} : {}", file, e.getMessage());
+        }
+    }
+
+    public static class PendingImage {
+        private final String uploadId = UUID.randomUUID().toString();
+        private final String hash;
+        private final String contentType;
+        private final Path file;
+        private final long length;
+        private final int permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile Long postId;
+
+        private PendingImage(String hash, String contentType, Path file, long length, int permits) {
+            this.hash = hash;
+            this.contentType = contentType;
+            this.file = file;
+            this.length = length;
+            this.permits = permits;
+        }
+
+        public String getUploadId() {
+            return uploadId;
+        }
+    }
+}
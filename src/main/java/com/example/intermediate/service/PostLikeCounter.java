@@ -0,0 +1,93 @@
+package com.example.intermediate.service;
+
+import com.example.intermediate.domain.Post;
+import com.example.intermediate.domain.PostLikeShard;
+import com.example.intermediate.repository.PostLikeShardRepository;
+import com.example.intermediate.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// 게시글 좋아요 수 증감
+// like.post-counter.shards 가 0보다 크면 post 행 대신 post_like_shard 의 임의의 행을 증감해서
+// 인기 게시글의 행 잠금 경합을 분산한다. 분산된 값은 주기적으로 post.likes_num 으로 합쳐진다.
+// 뜨거운 게시글만 골라 분산하지 않고 켜면 모든 게시글에 적용한다 (게시글마다 경합을 재지 않음)
+// 상세 조회는 getLikesNum 으로 shard 까지 더하지만, 목록 (게시글 목록, 마이페이지, 인기 게시글) 은
+// post.likes_num 만 읽으므로 fold 주기 (like.post-counter.fold-interval-ms) 만큼 늦게 반영된다
+@RequiredArgsConstructor
+@Component
+public class PostLikeCounter {
+
+    private static final int FOLD_BATCH_SIZE = 500;
+
+    private final PostRepository postRepository;
+    private final PostLikeShardRepository postLikeShardRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${like.post-counter.shards:0}")
+    private int shards;
+
+    // 호출한 쪽의 트랜잭션에 참여
+    public void add(Long postId, int delta) {
+        if (shards <= 0) {
+            postRepository.addLikesNum(postId, delta);
+            return;
+        }
+        postLikeShardRepository.addLikesNum(postId, ThreadLocalRandom.current().nextInt(shards), delta);
+    }
+
+    // 아직 합쳐지지 않은 분산 카운터까지 포함한 좋아요 수
+    public int getLikesNum(Post post) {
+        if (shards <= 0) {
+            return post.getLikesNum();
+        }
+        return post.getLikesNum() + (int) postLikeShardRepository.sumLikesNum(post.getId());
+    }
+
+    // 게시글 버전, 분산 카운터에 반영된 좋아요는 post 행 대신 shard 의 버전을 올리므로 합산
+    public long getVersion(Post post) {
+        return post.getVersion() + getShardVersion(post.getId());
+    }
+
+    public long getShardVersion(Long postId) {
+        if (shards <= 0) {
+            return 0;
+        }
+        return postLikeShardRepository.sumVersion(postId);
+    }
+
+    public void delete(Long postId) {
+        if (shards > 0) {
+            postLikeShardRepository.deleteAllByPostId(postId);
+        }
+    }
+
+    public void deleteAll(List<Long> postIds) {
+        if (shards > 0) {
+            postLikeShardRepository.deleteAllByPostIdIn(postIds);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${like.post-counter.fold-interval-ms:5000}")
+    public void fold() {
+        if (shards <= 0) {
+            return;
+        }
+
+        List<PostLikeShard> shardList = postLikeShardRepository.findAllNotFolded(PageRequest.of(0, FOLD_BATCH_SIZE));
+        for (PostLikeShard shard : shardList) {
+            // 읽은 값만큼만 옮기므로 그 사이에 들어온 증감은 다음 주기에 반영
+            // 합계가 바뀌지 않으므로 게시글 버전은 그대로 두고, 캐시된 상세 응답과 ETag 도 그대로 맞다
+            transactionTemplate.executeWithoutResult(status -> {
+                postRepository.foldLikesNum(shard.getPostId(), shard.getLikesNum());
+                postLikeShardRepository.subtractLikesNum(shard.getId(), shard.getLikesNum());
+            });
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package com.example.intermediate.service;
+
+import com.example.intermediate.domain.Post;
+import com.example.intermediate.event.DomainEvent;
+import com.example.intermediate.event.DomainEventSubscriber;
+import com.example.intermediate.event.PostCreated;
+import com.example.intermediate.event.PostDeleted;
+import com.example.intermediate.event.PostUpdated;
+import com.example.intermediate.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// 게시글 제목, 본문 검색용 메모리 역색인 (서버마다 하나, 기동할 때 DB 에서 다시 만든다)
+// 게시글이 저장될 때마다 새 docId 로 추가하고 이전 docId 는 삭제 표시, 삭제 표시가 많아지면 posting list 를 다시 쓴다
+// 점수는 BM25, 검색어의 토큰이 모두 들어 있는 게시글만 찾는다
+// 게시글 작성, 수정, 삭제는 DomainEventBus 로 커밋 후에 전달받는다
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class PostSearchIndex implements DomainEventSubscriber {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    // 제목의 토큰은 본문에 이만큼 나온 것으로 센다
+    private static final int TITLE_WEIGHT = 3;
+
+    // 삭제 표시가 이보다 적으면 다시 쓰지 않는다
+    private static final int MIN_COMPACT_COUNT = 64;
+
+    private final PostRepository postRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${search.rebuild.batch-size:1000}")
+    private int batchSize;
+
+    // 전체 docId 중 삭제 표시의 비율이 넘으면 다시 쓴다
+    @Value("${search.compact-ratio:0.3}")
+    private double compactRatio;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final Map<Long, Integer> docIds = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private PostingList[] postings = new PostingList[1024];
+    // docId 별 게시글 id, 문서 길이
+    private long[] postIds = new long[1024];
+    private int[] docLengths = new int[1024];
+    private int docCount;
+    private int deletedCount;
+    private long totalLength;
+    // 다시 만드는 동안 커밋된 게시글, 다시 만들 때 읽은 이전 내용으로 덮어쓰지 않는다
+    private Set<Long> changedDuringRebuild;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    // id 구간 단위로 짧은 트랜잭션에서 읽어 추가
+    public void rebuild() {
+        long startedAt = System.currentTimeMillis();
+        withWriteLock(() -> changedDuringRebuild = new HashSet<>());
+        int posts = 0;
+        try {
+            long afterId = 0;
+            while (true) {
+                long fromId = afterId;
+                List<Post> postList = readOnlyTransaction.execute(status ->
+                        postRepository.findAllAfter(fromId, PageRequest.of(0, batchSize)));
+                if (null == postList || postList.isEmpty()) {
+                    break;
+                }
+                for (Post post : postList) {
+                    Map<String, int[]> frequencies = countTokens(post.getTitle(), post.getContent());
+                    withWriteLock(() -> {
+                        if (!changedDuringRebuild.contains(post.getId())) {
+                            add(post.getId(), frequencies);
+                        }
+                    });
+                }
+                posts += postList.size();
+                afterId = postList.get(postList.size() - 1).getId();
+            }
+        } finally {
+            withWriteLock(() -> changedDuringRebuild = null);
+        }
+        log.info("검색 색인 생성 완료 - 게시글 {}건 ({}ms)", posts, System.currentTimeMillis() - startedAt);
+    }
+
+    @Override
+    public String getSubscriberName() {
+        return "postSearchIndex";
+    }
+
+    @Override
+    public boolean accepts(DomainEvent event) {
+        return event instanceof PostCreated || event instanceof PostUpdated || event instanceof PostDeleted;
+    }
+
+    @Override
+    public void onEvents(List<DomainEvent> events) {
+        for (DomainEvent event : events) {
+            if (event instanceof PostCreated) {
+                PostCreated postCreated = (PostCreated) event;
+                index(postCreated.getPostId(), postCreated.getTitle(), postCreated.getContent());
+            } else if (event instanceof PostUpdated) {
+                PostUpdated postUpdated = (PostUpdated) event;
+                index(postUpdated.getPostId(), postUpdated.getTitle(), postUpdated.getContent());
+            } else if (event instanceof PostDeleted) {
+                removeAll(((PostDeleted) event).getPostIds());
+            }
+        }
+    }
+
+    public void index(Long postId, String title, String content) {
+        Map<String, int[]> frequencies = countTokens(title, content);
+        withWriteLock(() -> {
+            markChanged(postId);
+            add(postId, frequencies);
+        });
+    }
+
+    public void remove(Long postId) {
+        removeAll(Collections.singletonList(postId));
+    }
+
+    public void removeAll(Collection<Long> postIds) {
+        withWriteLock(() -> {
+            for (Long postId : postIds) {
+                markChanged(postId);
+                Integer docId = docIds.remove(postId);
+                if (null != docId) {
+                    markDeleted(docId);
+                }
+            }
+            compactIfNeeded();
+        });
+    }
+
+    // 점수 순 (같으면 최근에 저장된 순) 으로 offset 부터 limit 개의 게시글 id
+    public List<Long> search(String query, int offset, int limit) {
+        Set<String> terms = new HashSet<>(SearchTokenizer.tokenize(query));
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        ReentrantReadWriteLock.ReadLock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            List<PostingList> lists = new ArrayList<>();
+            for (String term : terms) {
+                Integer termId = termIds.get(term);
+                if (null == termId) {
+                    return Collections.emptyList();
+                }
+                lists.add(postings[termId]);
+            }
+            // 짧은 목록부터 교집합
+            lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+            int liveCount = docCount - deletedCount;
+            float averageLength = liveCount == 0 ? 1 : (float) totalLength / liveCount;
+            int[] matches = null;
+            float[] scores = null;
+            int matchCount = 0;
+            int[] listDocIds = new int[lists.get(lists.size() - 1).size()];
+            int[] listFrequencies = new int[listDocIds.length];
+            for (PostingList list : lists) {
+                list.decode(listDocIds, listFrequencies);
+                // 삭제 표시된 문서도 세므로 0 밑으로 내려가지 않게
+                float idf = (float) Math.log(1 + (Math.max(liveCount - list.size(), 0) + 0.5) / (list.size() + 0.5));
+                if (null == matches) {
+                    matches = new int[list.size()];
+                    scores = new float[list.size()];
+                    for (int i = 0; i < list.size(); i++) {
+                        if (!deleted.get(listDocIds[i])) {
+                            matches[matchCount] = listDocIds[i];
+                            scores[matchCount++] = score(idf, listFrequencies[i], listDocIds[i], averageLength);
+                        }
+                    }
+                    continue;
+                }
+
+                // 두 목록 모두 docId 순
+                int kept = 0;
+                int j = 0;
+                for (int i = 0; i < matchCount && j < list.size(); ) {
+                    if (matches[i] < listDocIds[j]) {
+                        i++;
+                    } else if (matches[i] > listDocIds[j]) {
+                        j++;
+                    } else {
+                        matches[kept] = matches[i];
+                        scores[kept++] = scores[i] + score(idf, listFrequencies[j], listDocIds[j], averageLength);
+                        i++;
+                        j++;
+                    }
+                }
+                matchCount = kept;
+            }
+
+            // (점수, docId) 를 long 하나로 묶어 정렬, 점수는 0 이상이라 float 비트 순서가 크기 순서와 같다
+            long[] ranked = new long[matchCount];
+            for (int i = 0; i < matchCount; i++) {
+                ranked[i] = ((long) Float.floatToIntBits(scores[i]) << 32) | matches[i];
+            }
+            Arrays.sort(ranked);
+
+            List<Long> page = new ArrayList<>();
+            for (int i = matchCount - 1 - offset; i >= 0 && page.size() < limit; i--) {
+                page.add(postIds[(int) ranked[i]]);
+            }
+            return page;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private float score(float idf, int frequency, int docId, float averageLength) {
+        float normalized = K1 * (1 - B + B * docLengths[docId] / averageLength);
+        return idf * frequency * (K1 + 1) / (frequency + normalized);
+    }
+
+    private static Map<String, int[]> countTokens(String title, String content) {
+        Map<String, int[]> frequencies = new HashMap<>();
+        for (String token : SearchTokenizer.tokenize(title)) {
+            frequencies.computeIfAbsent(token, t -> new int[1])[0] += TITLE_WEIGHT;
+        }
+        for (String token : SearchTokenizer.tokenize(content)) {
+            frequencies.computeIfAbsent(token, t -> new int[1])[0]++;
+        }
+        return frequencies;
+    }
+
+    // 쓰기 잠금 안에서 호출
+    private void add(Long postId, Map<String, int[]> frequencies) {
+        Integer previous = docIds.get(postId);
+        if (null != previous) {
+            markDeleted(previous);
+        }
+
+        int docId = docCount++;
+        if (docId == postIds.length) {
+            postIds = Arrays.copyOf(postIds, docId * 2);
+            docLengths = Arrays.copyOf(docLengths, docId * 2);
+        }
+        int docLength = 0;
+        for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+            int frequency = entry.getValue()[0];
+            getPostingList(entry.getKey()).add(docId, frequency);
+            docLength += frequency;
+        }
+        postIds[docId] = postId;
+        docLengths[docId] = docLength;
+        totalLength += docLength;
+        docIds.put(postId, docId);
+        compactIfNeeded();
+    }
+
+    private PostingList getPostingList(String term) {
+        Integer termId = termIds.get(term);
+        if (null == termId) {
+            termId = termIds.size();
+            termIds.put(term, termId);
+            if (termId == postings.length) {
+                postings = Arrays.copyOf(postings, termId * 2);
+            }
+            postings[termId] = new PostingList();
+        }
+        return postings[termId];
+    }
+
+    private void markDeleted(int docId) {
+        deleted.set(docId);
+        deletedCount++;
+        totalLength -= docLengths[docId];
+    }
+
+    private void markChanged(Long postId) {
+        if (null != changedDuringRebuild) {
+            changedDuringRebuild.add(postId);
+        }
+    }
+
+    // 삭제 표시된 문서를 빼고 docId 를 0 부터 다시 매긴다, 빈 posting list 의 토큰도 지운다
+    private void compactIfNeeded() {
+        if (deletedCount < MIN_COMPACT_COUNT || deletedCount < docCount * compactRatio) {
+            return;
+        }
+
+        int[] newDocIds = new int[docCount];
+        long[] newPostIds = new long[Math.max(1024, docCount - deletedCount)];
+        int[] newDocLengths = new int[newPostIds.length];
+        int liveCount = 0;
+        for (int docId = 0; docId < docCount; docId++) {
+            if (deleted.get(docId)) {
+                newDocIds[docId] = -1;
+                continue;
+            }
+            newDocIds[docId] = liveCount;
+            newPostIds[liveCount] = postIds[docId];
+            newDocLengths[liveCount] = docLengths[docId];
+            docIds.put(postIds[docId], liveCount);
+            liveCount++;
+        }
+
+        PostingList[] newPostings = new PostingList[postings.length];
+        Map<String, Integer> newTermIds = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : termIds.entrySet()) {
+            PostingList compacted = postings[entry.getValue()].compact(newDocIds);
+            if (compacted.size() > 0) {
+                int termId = newTermIds.size();
+                newPostings[termId] = compacted;
+                newTermIds.put(entry.getKey(), termId);
+            }
+        }
+
+        termIds.clear();
+        termIds.putAll(newTermIds);
+        postings = newPostings;
+        postIds = newPostIds;
+        docLengths = newDocLengths;
+        docCount = liveCount;
+        deletedCount = 0;
+        deleted.clear();
+    }
+
+    private void withWriteLock(Runnable action) {
+        ReentrantReadWriteLock.WriteLock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            action.run();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
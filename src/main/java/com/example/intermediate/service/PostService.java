@@ -1,24 +1,34 @@
 package com.example.intermediate.service;
 
 import com.example.intermediate.controller.response.*;
-import com.example.intermediate.domain.Comment;
 import com.example.intermediate.domain.Member;
 import com.example.intermediate.domain.Post;
+import com.example.intermediate.controller.request.PostCursor;
 import com.example.intermediate.controller.request.PostRequestDto;
-import com.example.intermediate.domain.Recomment;
+import com.example.intermediate.event.DomainEventBus;
+import com.example.intermediate.event.PostCreated;
+import com.example.intermediate.event.PostDeleted;
+import com.example.intermediate.event.PostUpdated;
 import com.example.intermediate.jwt.TokenProvider;
-import com.example.intermediate.repository.CommentRepository;
+import com.example.intermediate.repository.LikePostRepository;
 import com.example.intermediate.repository.PostRepository;
+import com.example.intermediate.service.PostImageUploader.PendingImage;
+import com.example.intermediate.shared.ImageStatus;
+import com.example.intermediate.shared.LikeTargetType;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import javax.servlet.http.HttpServletRequest;
 
-import com.example.intermediate.repository.RecommentRepository;
-import com.example.intermediate.uril.S3Uploader;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -27,11 +37,21 @@ import org.springframework.web.multipart.MultipartFile;
 @RequiredArgsConstructor
 public class PostService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final PostRepository postRepository;
-    private final CommentRepository commentRepository;
-    private final RecommentRepository recommentRepository;
-    private final ListResponseProvider listResponse;
-    private final S3Uploader s3Uploader;
+    private final LikePostRepository likePostRepository;
+    private final CommentTreeProvider commentTreeProvider;
+    private final PostLikeCounter postLikeCounter;
+    private final LikeWriteBuffer likeWriteBuffer;
+    private final PostImageUploader postImageUploader;
+    private final ImageBlobService imageBlobService;
+    private final PostDetailCache postDetailCache;
+    private final PostVersionService postVersionService;
+    private final PostSearchIndex postSearchIndex;
+    private final HotPostRanker hotPostRanker;
+    private final DomainEventBus domainEventBus;
+    private final SerializedResponseCache serializedResponseCache;
     private final TokenProvider tokenProvider;
 
     @Transactional
@@ -50,23 +70,32 @@ public class PostService {
         if (null == member) {
             return ResponseDto.fail("INVALID_TOKEN", "Token이 유효하지 않습니다.");
         }
-        String storedFileName = null;
-        if (!image.isEmpty()) {
+        // 이미지는 커밋 후 비동기로 업로드
+        PendingImage pendingImage = null;
+        if (null != image && !image.isEmpty()) {
             try {
-                storedFileName = s3Uploader.upload(image, "images");
-                System.out.println(storedFileName);
+                pendingImage = postImageUploader.prepare(image);
             } catch (IOException e) {
-                e.printStackTrace();
+                return ResponseDto.fail("INVALID_IMAGE", "이미지를 읽을 수 없습니다.");
+            }
+            if (null == pendingImage) {
+                return ResponseDto.fail("IMAGE_UPLOAD_BUSY", "이미지 업로드 요청이 많습니다. 잠시 후 다시 시도해 주세요.");
             }
         }
 
         Post post = Post.builder()
                 .title(requestDto.getTitle())
                 .content(requestDto.getContent())
-                .imgUrl(storedFileName)
+                .imageStatus(null == pendingImage ? ImageStatus.NONE : ImageStatus.PENDING)
+                .imageUploadId(null == pendingImage ? null : pendingImage.getUploadId())
                 .member(member)
                 .build();
         postRepository.save(post);
+        serializedResponseCache.invalidateFeed();
+        domainEventBus.publish(new PostCreated(post.getId(), post.getTitle(), post.getContent()));
+        if (null != pendingImage) {
+            postImageUploader.uploadAfterCommit(pendingImage, post.getId());
+        }
         return ResponseDto.success(
                 PostResponseDto.builder()
                         .id(post.getId())
@@ -74,6 +103,9 @@ public class PostService {
                         .content(post.getContent())
 
                         .imgUrl(post.getImgUrl())
+                        .mediumUrl(post.getMediumUrl())
+                        .thumbnailUrl(post.getThumbnailUrl())
+                        .imageStatus(post.getImageStatus())
                         .author(post.getMember().getNickname())
                         .createdAt(post.getCreatedAt())
                         .modifiedAt(post.getModifiedAt())
@@ -82,46 +114,18 @@ public class PostService {
     }
 
 
+    // 변경될 때 PostDetailCache 로 무효화
+    @Cacheable(cacheNames = PostDetailCache.CACHE_NAME, key = "#id", unless = "!#result.success")
     @Transactional(readOnly = true)
     public ResponseDto<?> getPost(Long id) {
-        Post post = isPresentPost(id);
+        Post post = postRepository.findWithMemberById(id).orElse(null);
         if (null == post) {
             return ResponseDto.fail("NOT_FOUND", "존재하지 않는 게시글 id 입니다.");
         }
 
-        List<Comment> commentList = commentRepository.findAllByPost(post);
-        List<CommentResponseDto> commentResponseDtoList = new ArrayList<>();
-
-        for (Comment comment : commentList) {
-
-            List<Recomment> recommentList = recommentRepository.findAllByComment(comment);
-            List<RecommentResponseDto> recommentResponseDtoList = new ArrayList<>();
-            for(Recomment recomment : recommentList){
-                recommentResponseDtoList.add(
-                        RecommentResponseDto.builder()
-                                .id(recomment.getId())
-                                .author(recomment.getMember().getNickname())
-                                .content(recomment.getContent())
-                                .likesNum(recomment.getLikesNum())
-                                .createdAt(recomment.getCreatedAt())
-                                .modifiedAt(recomment.getModifiedAt())
-                                .build()
-                );
-            }
-
-
-            commentResponseDtoList.add(
-                    CommentResponseDto.builder()
-                            .id(comment.getId())
-                            .author(comment.getMember().getNickname())
-                            .content(comment.getContent())
-                            .createdAt(comment.getCreatedAt())
-                            .likesNum(comment.getLikesNum())
-                            .recommentResponseDtoList(recommentResponseDtoList)
-                            .modifiedAt(comment.getModifiedAt())
-                            .build()
-            );
-        }
+        // 버전을 먼저 읽어야 응답 내용이 ETag 보다 오래되지 않는다
+        long version = postLikeCounter.getVersion(post);
+        List<CommentResponseDto> commentResponseDtoList = commentTreeProvider.getCommentTree(post.getId());
 
         return ResponseDto.success(
                 PostResponseDto.builder()
@@ -129,21 +133,104 @@ public class PostService {
                         .title(post.getTitle())
                         .content(post.getContent())
                         .commentResponseDtoList(commentResponseDtoList)
-                        .likesNum(post.getLikesNum())
+                        .likesNum(postLikeCounter.getLikesNum(post)
+                                + likeWriteBuffer.getPendingDelta(LikeTargetType.POST, post.getId()))
                         .imgUrl(post.getImgUrl())
+                        .mediumUrl(post.getMediumUrl())
+                        .thumbnailUrl(post.getThumbnailUrl())
+                        .imageStatus(post.getImageStatus())
                         .author(post.getMember().getNickname())
                         .createdAt(post.getCreatedAt())
                         .modifiedAt(post.getModifiedAt())
+                        .version(version)
                         .build()
         );
     }
 
     @Transactional(readOnly = true)
-    public ResponseDto<?> getAllPost() {
-        List<Post> postList = postRepository.findAllByOrderByModifiedAtDesc();
+    public ResponseDto<?> getAllPost(String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        // 다음 페이지 존재 여부 확인을 위해 한 건 더 조회
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+
+        List<PostListResponseDto> postList;
+        if (null == cursor) {
+            postList = postRepository.findFeed(pageable);
+        } else {
+            PostCursor postCursor = PostCursor.decode(cursor);
+            if (null == postCursor) {
+                return ResponseDto.fail("BAD_REQUEST", "잘못된 커서 입니다.");
+            }
+            postList = postRepository.findFeedAfter(postCursor.getModifiedAt(), postCursor.getId(), pageable);
+        }
 
+        boolean hasNext = postList.size() > pageSize;
+        if (hasNext) {
+            postList = postList.subList(0, pageSize);
+        }
 
-        return ResponseDto.success(listResponse.getPostListResponse(postList));
+        String nextCursor = null;
+        if (hasNext) {
+            PostListResponseDto last = postList.get(postList.size() - 1);
+            nextCursor = new PostCursor(last.getModifiedAt(), last.getId()).encode();
+        }
+
+        return ResponseDto.success(
+                PostListPageResponseDto.builder()
+                        .postList(postList)
+                        .nextCursor(nextCursor)
+                        .hasNext(hasNext)
+                        .build()
+        );
+    }
+
+    // 검색 결과는 PostSearchIndex 의 점수 순, 커서는 다음 페이지의 시작 위치
+    @Transactional(readOnly = true)
+    public ResponseDto<?> searchPost(String query, String cursor, int size) {
+        if (null == query || query.isBlank()) {
+            return ResponseDto.fail("BAD_REQUEST", "검색어를 입력해 주세요.");
+        }
+
+        int offset = 0;
+        if (null != cursor) {
+            try {
+                offset = Integer.parseInt(cursor);
+            } catch (NumberFormatException e) {
+                offset = -1;
+            }
+            if (offset < 0) {
+                return ResponseDto.fail("BAD_REQUEST", "잘못된 커서 입니다.");
+            }
+        }
+
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        List<Long> postIds = postSearchIndex.search(query, offset, pageSize + 1);
+        boolean hasNext = postIds.size() > pageSize;
+        if (hasNext) {
+            postIds = postIds.subList(0, pageSize);
+        }
+
+        // 색인에서 아직 빠지지 않은 삭제된 게시글은 건너뛴다
+        Map<Long, PostListResponseDto> rows = postIds.isEmpty() ? Map.of()
+                : postRepository.findFeedByIdIn(postIds).stream()
+                        .collect(Collectors.toMap(PostListResponseDto::getId, Function.identity()));
+        List<PostListResponseDto> postList = postIds.stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        return ResponseDto.success(
+                PostListPageResponseDto.builder()
+                        .postList(postList)
+                        .nextCursor(hasNext ? String.valueOf(offset + pageSize) : null)
+                        .hasNext(hasNext)
+                        .build()
+        );
+    }
+
+    // 메모리에 만들어 둔 인기 게시글 목록 (DB 조회 없음)
+    public ResponseDto<?> getHotPosts(int size) {
+        return ResponseDto.success(hotPostRanker.getHotPosts(Math.min(Math.max(size, 1), MAX_PAGE_SIZE)));
     }
 
     @Transactional
@@ -163,7 +250,8 @@ public class PostService {
             return ResponseDto.fail("INVALID_TOKEN", "Token이 유효하지 않습니다.");
         }
 
-        Post post = isPresentPost(id);
+        // 이미지 컬럼과 참조를 정리하는 동안 업로드 결과가 끼어들지 않도록 잠근다
+        Post post = postRepository.findByIdForUpdate(id).orElse(null);
         if (null == post) {
             return ResponseDto.fail("NOT_FOUND", "존재하지 않는 게시글 id 입니다.");
         }
@@ -172,18 +260,26 @@ public class PostService {
             return ResponseDto.fail("BAD_REQUEST", "작성자만 수정할 수 있습니다.");
         }
 
-        String storedFileName = null;
-        if (!image.isEmpty()) {
+        PendingImage pendingImage = null;
+        if (null != image && !image.isEmpty()) {
             try {
-                storedFileName = s3Uploader.upload(image, "images");
-                System.out.println(storedFileName);
-
+                pendingImage = postImageUploader.prepare(image);
             } catch (IOException e) {
-                e.printStackTrace();
+                return ResponseDto.fail("INVALID_IMAGE", "이미지를 읽을 수 없습니다.");
+            }
+            if (null == pendingImage) {
+                return ResponseDto.fail("IMAGE_UPLOAD_BUSY", "이미지 업로드 요청이 많습니다. 잠시 후 다시 시도해 주세요.");
             }
         }
 
-        post.update(requestDto,storedFileName);
+        imageBlobService.release(post.getImageHash());
+        post.update(requestDto, null == pendingImage ? null : pendingImage.getUploadId());
+        postVersionService.increase(post.getId());
+        serializedResponseCache.invalidateFeed();
+        domainEventBus.publish(new PostUpdated(post.getId(), post.getTitle(), post.getContent()));
+        if (null != pendingImage) {
+            postImageUploader.uploadAfterCommit(pendingImage, post.getId());
+        }
         return ResponseDto.success(post);
     }
 
@@ -204,7 +300,7 @@ public class PostService {
             return ResponseDto.fail("INVALID_TOKEN", "Token이 유효하지 않습니다.");
         }
 
-        Post post = isPresentPost(id);
+        Post post = postRepository.findByIdForUpdate(id).orElse(null);
         if (null == post) {
             return ResponseDto.fail("NOT_FOUND", "존재하지 않는 게시글 id 입니다.");
         }
@@ -214,18 +310,46 @@ public class PostService {
         }
 
         postRepository.delete(post);
+        postLikeCounter.delete(post.getId());
+        imageBlobService.release(post.getImageHash());
+        postDetailCache.evict(post.getId());
+        serializedResponseCache.invalidateFeed();
+        domainEventBus.publish(new PostDeleted(List.of(post.getId())));
         return ResponseDto.success("delete success");
     }
 
     @Transactional
     public Long deleteBySearch(Long id){
-        Post post = postRepository.findById(id).orElseThrow(
+        Post post = postRepository.findByIdForUpdate(id).orElseThrow(
                 ()-> new NullPointerException("해당 아이디가 존재하지 않습니다.")
         );
         postRepository.deleteById(id);
+        imageBlobService.release(post.getImageHash());
+        postDetailCache.evict(id);
+        serializedResponseCache.invalidateFeed();
+        domainEventBus.publish(new PostDeleted(List.of(id)));
         return id;
     }
 
+    // 댓글이 없는 게시글 일괄 삭제, 좋아요와 이미지 참조도 함께 정리하고 실제로 삭제한 수를 반환
+    @Transactional
+    public int deletePostsWithoutComments(List<Long> ids) {
+        List<Post> postList = postRepository.findAllWithoutCommentsByIdIn(ids);
+        if (postList.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> postIds = postList.stream().map(Post::getId).collect(Collectors.toList());
+        likePostRepository.deleteAllByPostIdIn(postIds);
+        postLikeCounter.deleteAll(postIds);
+        postRepository.deleteAllByIdInBatch(postIds);
+        imageBlobService.releaseAll(postList.stream().map(Post::getImageHash).collect(Collectors.toList()));
+        postDetailCache.evictAll(postIds);
+        serializedResponseCache.invalidateFeed();
+        domainEventBus.publish(new PostDeleted(postIds));
+        return postIds.size();
+    }
+
     @Transactional(readOnly = true)
     public Post isPresentPost(Long id) {
         Optional<Post> optionalPost = postRepository.findById(id);
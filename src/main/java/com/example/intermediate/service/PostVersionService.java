@@ -0,0 +1,40 @@
+package com.example.intermediate.service;
+
+import com.example.intermediate.repository.CommentRepository;
+import com.example.intermediate.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+// 게시글 버전 (게시글, 댓글, 대댓글, 좋아요가 바뀔 때마다 증가) 과 이를 이용한 ETag
+// 좋아요 수는 카운터 update 쿼리에서 함께 올린다 (PostRepository.addLikesNum, PostLikeShardRepository.addLikesNum)
+@RequiredArgsConstructor
+@Service
+public class PostVersionService {
+
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final PostDetailCache postDetailCache;
+    private final PostLikeCounter postLikeCounter;
+
+    // 호출한 쪽의 트랜잭션에 참여, 상세 캐시는 커밋 후 무효화
+    public void increase(Long postId) {
+        postRepository.increaseVersion(postId);
+        postDetailCache.evict(postId);
+    }
+
+    // 게시글이 없으면 empty, PostLikeCounter.getVersion 과 같은 값
+    public Optional<String> getEtag(Long postId) {
+        return postRepository.findVersionById(postId)
+                .map(version -> toEtag(postId, version + postLikeCounter.getShardVersion(postId)));
+    }
+
+    public Optional<String> getEtagByComment(Long commentId) {
+        return commentRepository.findPostIdById(commentId).flatMap(this::getEtag);
+    }
+
+    public static String toEtag(Long postId, long version) {
+        return "\"" + postId + "-" + version + "\"";
+    }
+}
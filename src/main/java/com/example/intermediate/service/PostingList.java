@@ -0,0 +1,83 @@
+package com.example.intermediate.service;
+
+import java.util.Arrays;
+
+// 검색 색인에서 토큰 하나의 posting list
+// (이전 문서와의 docId 차이, 출현 횟수) 를 varint 로 이어 붙인 byte 배열, 문서는 docId 가 커지는 순서로만 추가한다
+final class PostingList {
+
+    private byte[] bytes = new byte[8];
+    private int length;
+    private int size;
+    private int lastDocId = -1;
+
+    // 삭제된 문서도 압축 전까지는 포함
+    int size() {
+        return size;
+    }
+
+    void add(int docId, int frequency) {
+        if (docId <= lastDocId) {
+            throw new IllegalArgumentException("docId 는 증가하는 순서로 추가해야 합니다.");
+        }
+        writeVarint(docId - lastDocId);
+        writeVarint(frequency);
+        lastDocId = docId;
+        size++;
+    }
+
+    // docIds, frequencies 는 size() 이상의 길이
+    void decode(int[] docIds, int[] frequencies) {
+        int position = 0;
+        int docId = -1;
+        for (int i = 0; i < size; i++) {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                value |= (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            docId += value;
+            docIds[i] = docId;
+
+            value = 0;
+            shift = 0;
+            do {
+                b = bytes[position++];
+                value |= (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            frequencies[i] = value;
+        }
+    }
+
+    // newDocIds[docId] 로 번호를 바꾼 새 목록, -1 인 (삭제된) 문서는 뺀다
+    PostingList compact(int[] newDocIds) {
+        int[] docIds = new int[size];
+        int[] frequencies = new int[size];
+        decode(docIds, frequencies);
+
+        PostingList compacted = new PostingList();
+        for (int i = 0; i < size; i++) {
+            int newDocId = newDocIds[docIds[i]];
+            if (newDocId >= 0) {
+                compacted.add(newDocId, frequencies[i]);
+            }
+        }
+        compacted.bytes = Arrays.copyOf(compacted.bytes, Math.max(compacted.length, 1));
+        return compacted;
+    }
+
+    private void writeVarint(int value) {
+        if (length + 5 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + 5));
+        }
+        while ((value & ~0x7f) != 0) {
+            bytes[length++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        bytes[length++] = (byte) value;
+    }
+}
@@ -7,7 +7,11 @@ import com.example.intermediate.domain.Comment;
 import com.example.intermediate.domain.Member;
 import com.example.intermediate.domain.Post;
 import com.example.intermediate.domain.Recomment;
+import com.example.intermediate.event.DomainEventBus;
+import com.example.intermediate.event.RecommentCreated;
+import com.example.intermediate.event.RecommentDeleted;
 import com.example.intermediate.jwt.TokenProvider;
+import com.example.intermediate.repository.CommentRepository;
 import com.example.intermediate.repository.RecommentRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -22,9 +26,12 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class RecommentService {
     private final RecommentRepository recommentRepository;
+    private final CommentRepository commentRepository;
     private final TokenProvider tokenProvider;
     private final PostService postService;
     private final CommentService commentService;
+    private final PostVersionService postVersionService;
+    private final DomainEventBus domainEventBus;
 
     @Transactional
     public ResponseDto<?> createRecomment(RecommentRequestDto requestDto, HttpServletRequest request) {
@@ -56,6 +63,9 @@ public class RecommentService {
                 .content(requestDto.getContent())
                 .build();
         recommentRepository.save(recomment);
+        commentRepository.addRecommentsNum(comment.getId(), 1);
+        postVersionService.increase(post.getId());
+        domainEventBus.publish(new RecommentCreated(post.getId(), recomment.getId()));
 
         return ResponseDto.success(
                 RecommentResponseDto.builder()
@@ -150,6 +160,7 @@ public class RecommentService {
         }
 
         recomment.update(requestDto);
+        postVersionService.increase(recomment.getPost().getId());
         return ResponseDto.success(
                 RecommentResponseDto.builder()
                         .id(recomment.getId())
@@ -194,6 +205,9 @@ public class RecommentService {
         }
 
         recommentRepository.delete(recomment);
+        commentRepository.addRecommentsNum(recomment.getComment().getId(), -1);
+        postVersionService.increase(recomment.getPost().getId());
+        domainEventBus.publish(new RecommentDeleted(recomment.getPost().getId(), recomment.getId()));
         return ResponseDto.success("success");
     }
 
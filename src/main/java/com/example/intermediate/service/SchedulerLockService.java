@@ -0,0 +1,125 @@
+package com.example.intermediate.service;
+
+import com.example.intermediate.repository.SchedulerLockRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// 스케줄 작업을 DB lease 로 감싸 여러 서버 중 한 곳에서만 실행되게 한다
+// 실행 중에는 heartbeat 로 lease 를 연장하고, 서버가 죽으면 ttl 이 지난 뒤 다른 서버가 가져간다
+// 끝난 뒤에도 시작 시각부터 min-hold-seconds 까지는 다른 서버가 같은 작업을 다시 실행하지 않는다
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class SchedulerLockService {
+
+    private final SchedulerLockRepository schedulerLockRepository;
+
+    @Value("${scheduler.lock.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    // ttl 보다 충분히 짧아야 한다
+    @Value("${scheduler.lock.heartbeat-ms:60000}")
+    private long heartbeatMs;
+
+    // 서버 간 cron 실행 시각 차이보다 길고, 가장 짧은 실행 간격보다는 짧아야 한다
+    @Value("${scheduler.lock.min-hold-seconds:60}")
+    private long minHoldSeconds;
+
+    private String owner;
+    private ScheduledExecutorService heartbeatExecutor;
+    private final Map<String, ScheduledFuture<?>> heldLocks = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        owner = getHostName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+        heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(
+                runnable -> new Thread(runnable, "scheduler-lock-heartbeat"));
+    }
+
+    @PreDestroy
+    public void close() {
+        heartbeatExecutor.shutdownNow();
+    }
+
+    // lease 를 얻으면 job 을 실행하고 true, 다른 서버가 실행 중이면 건너뛰고 false
+    public boolean runLocked(String name, Runnable job) {
+        if (!acquire(name)) {
+            log.info("{} 작업은 다른 서버에서 실행 중이므로 건너뜁니다.", name);
+            return false;
+        }
+
+        heldLocks.put(name, heartbeatExecutor.scheduleAtFixedRate(
+                () -> heartbeat(name), heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS));
+        try {
+            job.run();
+            return true;
+        } finally {
+            ScheduledFuture<?> heartbeat = heldLocks.remove(name);
+            if (null != heartbeat) {
+                heartbeat.cancel(false);
+            }
+            schedulerLockRepository.release(name, owner, minHoldSeconds);
+        }
+    }
+
+    // 긴 작업은 chunk 사이마다 확인해서 lease 를 잃었으면 멈춘다
+    public boolean isHeld(String name) {
+        return heldLocks.containsKey(name);
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    private boolean acquire(String name) {
+        if (schedulerLockRepository.acquire(name, owner, ttlSeconds) == 1) {
+            return true;
+        }
+        if (schedulerLockRepository.existsById(name)) {
+            return false;
+        }
+        try {
+            return schedulerLockRepository.insert(name, owner, ttlSeconds) == 1;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private void heartbeat(String name) {
+        try {
+            if (schedulerLockRepository.extend(name, owner, ttlSeconds) == 0) {
+                log.warn("{} 작업의 lease 를 잃었습니다.", name);
+                ScheduledFuture<?> heartbeat = heldLocks.remove(name);
+                if (null != heartbeat) {
+                    heartbeat.cancel(false);
+                }
+            }
+        } catch (RuntimeException e) {
+            // 일시적인 DB 오류는 다음 heartbeat 에서 다시 시도
+            log.warn("{} 작업의 lease 연장 실패 : {}", name, e.getMessage());
+        }
+    }
+
+    private static String getHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
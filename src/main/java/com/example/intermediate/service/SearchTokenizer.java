@@ -0,0 +1,76 @@
+package com.example.intermediate.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// 검색 색인, 검색어 공용 토크나이저
+// 영문, 숫자는 단어 단위, 한글 (한자, 가나 포함) 은 조사가 붙거나 단어 일부만 검색해도 찾을 수 있도록 두 글자 (bigram) 단위
+// 한 글자짜리 한글 단어는 그대로 토큰
+final class SearchTokenizer {
+
+    // 글자 종류
+    private static final int OTHER = 0;
+    private static final int WORD = 1;
+    private static final int CJK = 2;
+
+    private SearchTokenizer() {
+    }
+
+    // 같은 토큰이 여러 번 나오면 그 횟수만큼 포함
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (null == text) {
+            return tokens;
+        }
+
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        int length = normalized.length();
+        int start = 0;
+        while (start < length) {
+            int kind = kindOf(normalized.codePointAt(start));
+            if (kind == OTHER) {
+                start += Character.charCount(normalized.codePointAt(start));
+                continue;
+            }
+
+            // 같은 종류의 글자가 이어지는 구간
+            int end = start;
+            while (end < length && kindOf(normalized.codePointAt(end)) == kind) {
+                end += Character.charCount(normalized.codePointAt(end));
+            }
+            String word = normalized.substring(start, end);
+            if (kind == WORD) {
+                tokens.add(word);
+            } else {
+                addBigrams(word, tokens);
+            }
+            start = end;
+        }
+        return tokens;
+    }
+
+    private static int kindOf(int codePoint) {
+        if (!Character.isLetterOrDigit(codePoint)) {
+            return OTHER;
+        }
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        if (script == Character.UnicodeScript.HANGUL || script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA || script == Character.UnicodeScript.KATAKANA) {
+            return CJK;
+        }
+        return WORD;
+    }
+
+    private static void addBigrams(String word, List<String> tokens) {
+        int[] codePoints = word.codePoints().toArray();
+        if (codePoints.length == 1) {
+            tokens.add(word);
+            return;
+        }
+        for (int i = 0; i + 1 < codePoints.length; i++) {
+            tokens.add(new String(codePoints, i, 2));
+        }
+    }
+}
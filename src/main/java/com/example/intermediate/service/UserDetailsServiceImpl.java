@@ -3,23 +3,58 @@ package com.example.intermediate.service;
 import com.example.intermediate.domain.Member;
 import com.example.intermediate.domain.UserDetailsImpl;
 import com.example.intermediate.repository.MemberRepository;
-import java.util.Optional;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-@RequiredArgsConstructor
 public class UserDetailsServiceImpl implements UserDetailsService {
   private final MemberRepository memberRepository;
 
+  // 인증 때마다 회원을 조회하지 않도록 닉네임 별로 보관, 회원 정보가 바뀌면 evict
+  // 요청 스레드끼리 공유하므로 엔티티 대신 바뀌지 않는 값만 보관하고 꺼낼 때마다 새 Member 를 만든다
+  private final Cache<String, CachedMember> userDetailsCache;
+
+  public UserDetailsServiceImpl(MemberRepository memberRepository,
+      @Value("${auth.user-cache.max-size:10000}") long maxSize,
+      @Value("${auth.user-cache.ttl-seconds:300}") long ttlSeconds) {
+    this.memberRepository = memberRepository;
+    this.userDetailsCache = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+        .build();
+  }
+
   @Override
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-    Optional<Member> member = memberRepository.findByNickname(username);
-    return member
-        .map(UserDetailsImpl::new)
-        .orElseThrow(() -> new UsernameNotFoundException("사용자를 찾을 수 없습니다."));
+    CachedMember cachedMember = userDetailsCache.getIfPresent(username);
+    if (null == cachedMember) {
+      Member member = memberRepository.findByNickname(username)
+          .orElseThrow(() -> new UsernameNotFoundException("사용자를 찾을 수 없습니다."));
+      cachedMember = new CachedMember(member.getId(), member.getNickname());
+      userDetailsCache.put(username, cachedMember);
+    }
+
+    // 권한은 토큰의 claims 로 정하므로 회원 id, 닉네임만 있으면 된다
+    return new UserDetailsImpl(Member.builder()
+        .id(cachedMember.id)
+        .nickname(cachedMember.nickname)
+        .build());
+  }
+
+  public void evict(String username) {
+    userDetailsCache.invalidate(username);
+  }
+
+  @RequiredArgsConstructor
+  private static class CachedMember {
+    private final Long id;
+    private final String nickname;
   }
 }
@@ -0,0 +1,9 @@
+package com.example.intermediate.shared;
+
+// 게시글 이미지 업로드 상태
+public enum ImageStatus {
+  NONE,
+  PENDING,
+  DONE,
+  FAILED
+}
@@ -0,0 +1,7 @@
+package com.example.intermediate.shared;
+
+// 원본과 함께 업로드하는 축소 이미지
+public enum ImageVariant {
+  THUMBNAIL,
+  MEDIUM
+}
@@ -0,0 +1,29 @@
+package com.example.intermediate.shared;
+
+public enum LikeTargetType {
+  POST("like_post", "post_id", "post"),
+  COMMENT("like_co", "comment_id", "comment"),
+  RECOMMENT("like_reco", "recomment_id", "recomment");
+
+  private final String likeTable;
+  private final String targetColumn;
+  private final String targetTable;
+
+  LikeTargetType(String likeTable, String targetColumn, String targetTable) {
+    this.likeTable = likeTable;
+    this.targetColumn = targetColumn;
+    this.targetTable = targetTable;
+  }
+
+  public String getLikeTable() {
+    return likeTable;
+  }
+
+  public String getTargetColumn() {
+    return targetColumn;
+  }
+
+  public String getTargetTable() {
+    return targetTable;
+  }
+}
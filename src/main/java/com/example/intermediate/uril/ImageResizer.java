@@ -0,0 +1,171 @@
+package com.example.intermediate.uril;
+
+import com.example.intermediate.shared.ImageVariant;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+// 업로드 이미지를 한 번만 디코딩해 고정 너비의 축소본을 만든다
+@Slf4j
+@Component
+public class ImageResizer {
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    @Value("${image.resize.thumbnail-width:200}")
+    private int thumbnailWidth;
+
+    @Value("${image.resize.medium-width:800}")
+    private int mediumWidth;
+
+    // 디코딩하면 가로 x 세로 x 4 bytes 를 차지하므로 너무 큰 이미지는 원본만 올린다
+    @Value("${image.resize.max-pixels:25000000}")
+    private long maxPixels;
+
+    // 동시에 디코딩해 둘 수 있는 비트맵의 최대 총 크기, 모자라면 업로드 스레드가 기다린다
+    @Value("${image.resize.max-decoded-bytes:209715200}")
+    private int maxDecodedBytes;
+
+    private Semaphore decodedBytes;
+
+    @PostConstruct
+    public void init() {
+        decodedBytes = new Semaphore(maxDecodedBytes);
+    }
+
+    // 원본보다 작은 variant 만 만든다, 디코딩할 수 없는 형식이면 빈 Map
+    public Map<ImageVariant, ResizedImage> resize(Path file) {
+        Map<ImageVariant, ResizedImage> resizedImages = new EnumMap<>(ImageVariant.class);
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = null == input ? null : ImageIO.getImageReaders(input);
+            if (null == readers || !readers.hasNext()) {
+                log.info("디코딩할 수 없는 이미지 {}", file);
+                return resizedImages;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // 헤더로 크기를 먼저 확인하고, 디코딩된 비트맵 크기만큼 예약한 뒤 축소가 끝나면 돌려준다
+                int permits = reserve(reader.getWidth(0), reader.getHeight(0));
+                if (permits <= 0) {
+                    return resizedImages;
+                }
+                try {
+                    resize(reader.read(0), resizedImages);
+                } finally {
+                    decodedBytes.release(permits);
+                }
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("이미지 축소 실패 : {}", e.getMessage());
+            resizedImages.clear();
+        }
+        return resizedImages;
+    }
+
+    // 큰 variant 부터 만들어 다음 variant 의 원본으로 사용
+    private void resize(BufferedImage source, Map<ImageVariant, ResizedImage> resizedImages) throws IOException {
+        BufferedImage current = source;
+        for (ImageVariant variant : new ImageVariant[]{ImageVariant.MEDIUM, ImageVariant.THUMBNAIL}) {
+            int width = getWidth(variant);
+            if (source.getWidth() <= width) {
+                continue;
+            }
+            current = scale(current, width);
+            resizedImages.put(variant, encode(current, source.getColorModel().hasAlpha()));
+        }
+    }
+
+    private int getWidth(ImageVariant variant) {
+        return variant == ImageVariant.THUMBNAIL ? thumbnailWidth : mediumWidth;
+    }
+
+    // 가로 x 세로 x 4 bytes 를 예약, 축소하지 않을 이미지면 0
+    private int reserve(int width, int height) {
+        long pixels = (long) width * height;
+        if (pixels > maxPixels || pixels * 4 > maxDecodedBytes) {
+            log.info("이미지가 너무 커서 축소하지 않습니다. {}x{}", width, height);
+            return 0;
+        }
+        int permits = (int) (pixels * 4);
+        try {
+            decodedBytes.acquire(permits);
+            return permits;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+
+    // 한 번에 크게 줄이면 품질이 떨어지므로 절반씩 줄인다
+    private BufferedImage scale(BufferedImage image, int targetWidth) {
+        BufferedImage current = image;
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        do {
+            int width = Math.max(current.getWidth() / 2, targetWidth);
+            int height = Math.max(1, (int) Math.round((double) image.getHeight() * width / image.getWidth()));
+            BufferedImage scaled = new BufferedImage(width, height, type);
+            Graphics2D graphics = scaled.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = scaled;
+        } while (current.getWidth() > targetWidth);
+        return current;
+    }
+
+    // 투명도가 있으면 png, 아니면 jpeg
+    private ResizedImage encode(BufferedImage image, boolean hasAlpha) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        if (hasAlpha) {
+            ImageIO.write(image, "png", output);
+            return new ResizedImage(output.toByteArray(), "image/png");
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream imageOutput = ImageIO.createImageOutputStream(output)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(imageOutput);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return new ResizedImage(output.toByteArray(), "image/jpeg");
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class ResizedImage {
+        private final byte[] bytes;
+        private final String contentType;
+    }
+}
@@ -1,8 +1,14 @@
 package com.example.intermediate.uril;
 
 import com.amazonaws.services.s3.AmazonS3Client;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
 import com.amazonaws.services.s3.model.CannedAccessControlList;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
 import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.UploadPartRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,10 +16,10 @@ import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.Optional;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -27,47 +33,80 @@ public class S3Uploader {
     @Value("${cloud.aws.s3.bucket}")
     private String bucket;
 
-    // MultipartFile을 전달받아 File로 전환한 후 S3에 업로드
+    // 이 크기를 넘으면 multipart 업로드
+    @Value("${cloud.aws.s3.multipart-threshold:16777216}")
+    private long multipartThreshold;
+
+    // multipart 업로드의 part 크기 (S3 최소 5MB)
+    @Value("${cloud.aws.s3.part-size:8388608}")
+    private long partSize;
+
+    // MultipartFile의 InputStream을 임시 파일 없이 그대로 S3에 업로드
     public String upload(MultipartFile multipartFile, String dirName) throws IOException {
-        File uploadFile = convert(multipartFile)
-                .orElseThrow(() -> new IllegalArgumentException("MultipartFile -> File 전환 실패"));
-        return upload(uploadFile, dirName);
+        String fileName = dirName + "/" + UUID.randomUUID() + multipartFile.getOriginalFilename();
+        try (InputStream inputStream = multipartFile.getInputStream()) {
+            return upload(inputStream, multipartFile.getSize(), multipartFile.getContentType(), fileName);
+        }
     }
 
-    private String upload(File uploadFile, String dirName) {
-        String fileName = dirName + "/" + UUID.randomUUID() + uploadFile.getName();
-        String uploadImageUrl = putS3(uploadFile, fileName);
-
-        removeNewFile(uploadFile);  // 로컬에 생성된 File 삭제 (MultipartFile -> File 전환 하며 로컬에 파일 생성됨)
+    // 길이를 아는 스트림을 fileName 으로 업로드하고 S3 URL 반환, 스트림은 호출한 쪽에서 닫는다
+    public String upload(InputStream inputStream, long contentLength, String contentType, String fileName) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(contentLength);
+        if (null != contentType) {
+            metadata.setContentType(contentType);
+        }
 
-        return uploadImageUrl;      // 업로드된 파일의 S3 URL 주소 반환
+        if (contentLength > multipartThreshold) {
+            putS3Multipart(inputStream, contentLength, metadata, fileName);
+        } else {
+            putS3(inputStream, metadata, fileName);
+        }
+        return amazonS3Client.getUrl(bucket, fileName).toString();      // 업로드된 파일의 S3 URL 주소 반환
     }
 
-    private String putS3(File uploadFile, String fileName) {
+    private void putS3(InputStream inputStream, ObjectMetadata metadata, String fileName) {
         amazonS3Client.putObject(
-                new PutObjectRequest(bucket, fileName, uploadFile)
+                new PutObjectRequest(bucket, fileName, inputStream, metadata)
                         .withCannedAcl(CannedAccessControlList.PublicRead)	// PublicRead 권한으로 업로드 됨
         );
-        return amazonS3Client.getUrl(bucket, fileName).toString();
     }
 
-    private void removeNewFile(File targetFile) {
-        if(targetFile.delete()) {
-            log.info("파일이 삭제되었습니다.");
-        }else {
-            log.info("파일이 삭제되지 못했습니다.");
-        }
+    public void delete(String fileName) {
+        amazonS3Client.deleteObject(bucket, fileName);
     }
 
-    private Optional<File> convert(MultipartFile file) throws  IOException {
-        File convertFile = new File(file.getOriginalFilename());
-        if(convertFile.createNewFile()) {
-            try (FileOutputStream fos = new FileOutputStream(convertFile)) {
-                fos.write(file.getBytes());
+    // part 단위로 스트림을 이어서 읽어 업로드, 실패하면 올라간 part 를 정리
+    private void putS3Multipart(InputStream inputStream, long contentLength, ObjectMetadata metadata, String fileName) {
+        String uploadId = amazonS3Client.initiateMultipartUpload(
+                new InitiateMultipartUploadRequest(bucket, fileName, metadata)
+                        .withCannedACL(CannedAccessControlList.PublicRead)
+        ).getUploadId();
+
+        try {
+            List<PartETag> partETags = new ArrayList<>();
+            long position = 0;
+            for (int partNumber = 1; position < contentLength; partNumber++) {
+                long size = Math.min(partSize, contentLength - position);
+                position += size;
+                partETags.add(amazonS3Client.uploadPart(
+                        new UploadPartRequest()
+                                .withBucketName(bucket)
+                                .withKey(fileName)
+                                .withUploadId(uploadId)
+                                .withPartNumber(partNumber)
+                                .withPartSize(size)
+                                .withInputStream(inputStream)
+                                .withLastPart(position == contentLength)
+                ).getPartETag());
             }
-            return Optional.of(convertFile);
+            amazonS3Client.completeMultipartUpload(
+                    new CompleteMultipartUploadRequest(bucket, fileName, uploadId, partETags));
+        } catch (RuntimeException e) {
+            log.warn("multipart 업로드 실패, 업로드를 취소합니다. {}", fileName);
+            amazonS3Client.abortMultipartUpload(new AbortMultipartUploadRequest(bucket, fileName, uploadId));
+            throw e;
         }
-        return Optional.empty();
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,92 @@
+package com.example.intermediate;
+
+import com.example.intermediate.domain.Comment;
+import com.example.intermediate.domain.Member;
+import com.example.intermediate.domain.Post;
+import com.example.intermediate.domain.Recomment;
+import com.example.intermediate.domain.UserDetailsImpl;
+import com.example.intermediate.jwt.TokenProvider;
+import com.example.intermediate.repository.CommentRepository;
+import com.example.intermediate.repository.MemberRepository;
+import com.example.intermediate.repository.PostRepository;
+import com.example.intermediate.repository.RecommentRepository;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+// 테스트용 회원, 게시글, 댓글과 로그인 요청
+// 모든 테스트가 같은 DB 를 쓰므로 닉네임에 일련번호를 붙여 unique 제약을 피한다
+@Component
+public class TestFixture {
+
+  private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+  private final MemberRepository memberRepository;
+  private final PostRepository postRepository;
+  private final CommentRepository commentRepository;
+  private final RecommentRepository recommentRepository;
+  private final TokenProvider tokenProvider;
+
+  public TestFixture(MemberRepository memberRepository, PostRepository postRepository,
+      CommentRepository commentRepository, RecommentRepository recommentRepository, TokenProvider tokenProvider) {
+    this.memberRepository = memberRepository;
+    this.postRepository = postRepository;
+    this.commentRepository = commentRepository;
+    this.recommentRepository = recommentRepository;
+    this.tokenProvider = tokenProvider;
+  }
+
+  public static String nickname(String prefix) {
+    return prefix + SEQUENCE.incrementAndGet();
+  }
+
+  public Member saveMember(String prefix) {
+    return memberRepository.save(Member.builder()
+        .nickname(nickname(prefix))
+        .password("password")
+        .build());
+  }
+
+  public Post savePost() {
+    return savePost(saveMember("writer"), "title");
+  }
+
+  public Post savePost(Member writer, String title) {
+    return postRepository.save(Post.builder()
+        .title(title)
+        .content("content")
+        .member(writer)
+        .build());
+  }
+
+  public Comment saveComment(Member writer, Post post) {
+    return commentRepository.save(Comment.builder()
+        .member(writer)
+        .post(post)
+        .content("comment")
+        .build());
+  }
+
+  public Recomment saveRecomment(Member writer, Comment comment) {
+    return recommentRepository.save(Recomment.builder()
+        .member(writer)
+        .post(comment.getPost())
+        .comment(comment)
+        .content("recomment")
+        .build());
+  }
+
+  // 현재 스레드의 SecurityContext 에 로그인하고, 서비스가 확인하는 두 헤더를 채운 요청 반환
+  public MockHttpServletRequest login(Member member) {
+    UserDetailsImpl userDetails = new UserDetailsImpl(member);
+    SecurityContextHolder.getContext().setAuthentication(
+        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.addHeader("Authorization", "Bearer access-token");
+    request.addHeader("Refresh-Token", tokenProvider.generateTokenDto(member).getRefreshToken());
+    return request;
+  }
+}
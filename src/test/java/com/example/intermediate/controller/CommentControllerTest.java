@@ -0,0 +1,87 @@
+package com.example.intermediate.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.intermediate.domain.Comment;
+import com.example.intermediate.domain.Member;
+import com.example.intermediate.domain.Post;
+import com.example.intermediate.domain.Recomment;
+import com.example.intermediate.repository.CommentRepository;
+import com.example.intermediate.repository.MemberRepository;
+import com.example.intermediate.repository.PostRepository;
+import com.example.intermediate.repository.RecommentRepository;
+import com.example.intermediate.service.PostVersionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CommentControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+  @Autowired
+  private PostVersionService postVersionService;
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+  @Autowired
+  private MemberRepository memberRepository;
+  @Autowired
+  private PostRepository postRepository;
+  @Autowired
+  private CommentRepository commentRepository;
+  @Autowired
+  private RecommentRepository recommentRepository;
+
+  @Test
+  void commentsAndRecommentsAnswerNotModifiedUntilPostVersionChanges() throws Exception {
+    Member member = memberRepository.save(Member.builder()
+        .nickname("etagCommenter")
+        .password("password")
+        .build());
+    Post post = postRepository.save(Post.builder()
+        .title("title")
+        .content("content")
+        .member(member)
+        .build());
+    Comment comment = commentRepository.save(Comment.builder()
+        .member(member)
+        .post(post)
+        .content("comment")
+        .build());
+    String etag = PostVersionService.toEtag(post.getId(), 0);
+
+    mockMvc.perform(get("/api/comment/" + post.getId()))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, etag));
+    mockMvc.perform(get("/api/comment/" + post.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified());
+    mockMvc.perform(get("/api/recomment/" + comment.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified());
+
+    // 대댓글이 달리면 게시글 버전이 올라 두 목록 모두 다시 내려준다
+    transactionTemplate.executeWithoutResult(status -> {
+      Recomment recomment = recommentRepository.save(Recomment.builder()
+          .member(member)
+          .post(post)
+          .comment(comment)
+          .content("recomment")
+          .build());
+      postVersionService.increase(recomment.getPost().getId());
+    });
+    String newEtag = PostVersionService.toEtag(post.getId(), 1);
+    mockMvc.perform(get("/api/comment/" + post.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, newEtag));
+    mockMvc.perform(get("/api/recomment/" + comment.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, newEtag));
+  }
+}
@@ -0,0 +1,215 @@
+package com.example.intermediate.controller;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.intermediate.TestFixture;
+import com.example.intermediate.controller.response.SerializedResponseCache;
+import com.example.intermediate.domain.Comment;
+import com.example.intermediate.domain.Member;
+import com.example.intermediate.domain.Post;
+import com.example.intermediate.repository.CommentRepository;
+import com.example.intermediate.repository.MemberRepository;
+import com.example.intermediate.repository.PostRepository;
+import com.example.intermediate.service.PostDetailCache;
+import com.example.intermediate.service.PostLikeCounter;
+import com.example.intermediate.service.PostService;
+import com.example.intermediate.service.PostVersionService;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PostControllerTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+  @Autowired
+  private SerializedResponseCache serializedResponseCache;
+  @Autowired
+  private PostVersionService postVersionService;
+  @Autowired
+  private PostLikeCounter postLikeCounter;
+  @Autowired
+  private PostDetailCache postDetailCache;
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+  @Autowired
+  private MemberRepository memberRepository;
+  @Autowired
+  private PostRepository postRepository;
+  @Autowired
+  private CommentRepository commentRepository;
+  @Autowired
+  private PostService postService;
+  @Autowired
+  private TestFixture fixture;
+
+  @BeforeEach
+  void enableResponseCache() {
+    ReflectionTestUtils.setField(serializedResponseCache, "enabled", true);
+    ReflectionTestUtils.setField(serializedResponseCache, "gzipMinBytes", 0);
+  }
+
+  @AfterEach
+  void disableResponseCache() {
+    ReflectionTestUtils.setField(serializedResponseCache, "enabled", false);
+    ReflectionTestUtils.setField(serializedResponseCache, "gzipMinBytes", 1024);
+  }
+
+  @Test
+  void getPostWritesCachedBytesWithEtag() throws Exception {
+    Post post = savePost("controllerWriter", "content");
+
+    MockHttpServletResponse first = mockMvc.perform(get("/api/post/" + post.getId()))
+        .andExpect(status().isOk())
+        .andReturn().getResponse();
+    String etag = first.getHeader(HttpHeaders.ETAG);
+    assertEquals(PostVersionService.toEtag(post.getId(), 0), etag);
+    assertTrue(first.getContentAsString().contains("\"success\":true"));
+
+    MockHttpServletResponse second = mockMvc.perform(get("/api/post/" + post.getId()))
+        .andExpect(status().isOk())
+        .andReturn().getResponse();
+    assertEquals(etag, second.getHeader(HttpHeaders.ETAG));
+    assertArrayEquals(first.getContentAsByteArray(), second.getContentAsByteArray());
+
+    // 바뀌지 않았으면 본문 없이 304
+    MockHttpServletResponse notModified = mockMvc.perform(get("/api/post/" + post.getId())
+            .header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified())
+        .andReturn().getResponse();
+    assertEquals(0, notModified.getContentAsByteArray().length);
+
+    // gzip 을 받을 수 있으면 미리 압축해 둔 바이트
+    MockHttpServletResponse gzipped = mockMvc.perform(get("/api/post/" + post.getId())
+            .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+        .andReturn().getResponse();
+    String gzipEtag = gzipped.getHeader(HttpHeaders.ETAG);
+    assertNotEquals(etag, gzipEtag);
+    assertArrayEquals(first.getContentAsByteArray(), gunzip(gzipped.getContentAsByteArray()));
+    mockMvc.perform(get("/api/post/" + post.getId())
+            .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+            .header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, gzipEtag));
+    // gzip 을 받을 수 없는 요청에는 gzip ETag 가 일치하지 않는다
+    mockMvc.perform(get("/api/post/" + post.getId()).header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+    // 댓글이 달리면 게시글 버전이 올라 새 ETag
+    transactionTemplate.executeWithoutResult(status -> {
+      commentRepository.save(Comment.builder()
+          .member(post.getMember())
+          .post(post)
+          .content("comment")
+          .build());
+      postVersionService.increase(post.getId());
+    });
+    mockMvc.perform(get("/api/post/" + post.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, PostVersionService.toEtag(post.getId(), 1)));
+  }
+
+  @Test
+  void getPostEtagFollowsLikeCounter() throws Exception {
+    Post post = savePost("likeEtagWriter", "content");
+    String etag = mockMvc.perform(get("/api/post/" + post.getId()))
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    // 좋아요 수 update 쿼리가 버전도 함께 올린다 (분산 카운터면 shard 의 버전)
+    transactionTemplate.executeWithoutResult(status -> {
+      postLikeCounter.add(post.getId(), 1);
+      postDetailCache.evict(post.getId());
+    });
+    assertNotEquals(etag, postVersionService.getEtag(post.getId()).get());
+    mockMvc.perform(get("/api/post/" + post.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk());
+
+    ReflectionTestUtils.setField(postLikeCounter, "shards", 4);
+    try {
+      String before = postVersionService.getEtag(post.getId()).get();
+      transactionTemplate.executeWithoutResult(status -> postLikeCounter.add(post.getId(), 1));
+      assertNotEquals(before, postVersionService.getEtag(post.getId()).get());
+    } finally {
+      ReflectionTestUtils.setField(postLikeCounter, "shards", 0);
+    }
+  }
+
+  @Test
+  void getAllPostsReusesPageUntilFeedIsInvalidated() throws Exception {
+    savePost("feedWriter", "content");
+
+    String etag = mockMvc.perform(get("/api/post").param("size", "5"))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    mockMvc.perform(get("/api/post").param("size", "5").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified());
+
+    Post newPost = savePost("feedWriter2", "new content");
+    serializedResponseCache.invalidateFeed();
+
+    String content = mockMvc.perform(get("/api/post").param("size", "5").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+    assertTrue(content.contains("\"id\":" + newPost.getId()));
+  }
+
+  @Test
+  void deletedPostLeavesFeedRightAfterCommit() throws Exception {
+    Member writer = fixture.saveMember("feedDeleter");
+    Post post = fixture.savePost(writer, "title");
+    serializedResponseCache.invalidateFeed();
+
+    String content = mockMvc.perform(get("/api/post").param("size", "5"))
+        .andReturn().getResponse().getContentAsString();
+    assertTrue(content.contains("\"id\":" + post.getId()));
+
+    // 이벤트 버스를 기다리지 않아도 바로 다음 조회부터 빠진다
+    assertTrue(postService.deletePost(post.getId(), fixture.login(writer)).isSuccess());
+    SecurityContextHolder.clearContext();
+    content = mockMvc.perform(get("/api/post").param("size", "5"))
+        .andReturn().getResponse().getContentAsString();
+    assertFalse(content.contains("\"id\":" + post.getId()));
+  }
+
+  private Post savePost(String nickname, String content) {
+    Member member = memberRepository.save(Member.builder()
+        .nickname(nickname)
+        .password("password")
+        .build());
+    return postRepository.save(Post.builder()
+        .title("title")
+        .content(content)
+        .member(member)
+        .build());
+  }
+
+  private static byte[] gunzip(byte[] bytes) throws IOException {
+    try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+      return input.readAllBytes();
+    }
+  }
+}
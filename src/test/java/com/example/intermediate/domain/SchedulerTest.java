@@ -0,0 +1,85 @@
+package com.example.intermediate.domain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.intermediate.repository.BatchCheckpointRepository;
+import com.example.intermediate.repository.CommentRepository;
+import com.example.intermediate.repository.ImageBlobRepository;
+import com.example.intermediate.repository.LikePostRepository;
+import com.example.intermediate.repository.MemberRepository;
+import com.example.intermediate.repository.PostRepository;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@SpringBootTest
+class SchedulerTest {
+
+  private static final String IMAGE_HASH = "a".repeat(64);
+
+  @Autowired
+  private Scheduler scheduler;
+  @Autowired
+  private MemberRepository memberRepository;
+  @Autowired
+  private PostRepository postRepository;
+  @Autowired
+  private CommentRepository commentRepository;
+  @Autowired
+  private LikePostRepository likePostRepository;
+  @Autowired
+  private ImageBlobRepository imageBlobRepository;
+  @Autowired
+  private BatchCheckpointRepository batchCheckpointRepository;
+
+  @Test
+  void updatePostDeleteRemovesPostsWithoutCommentsInChunks() {
+    Member writer = memberRepository.save(Member.builder()
+        .nickname("schedulerWriter")
+        .password("password")
+        .build());
+
+    // 짝수 번째 게시글에만 댓글, 댓글 없는 게시글 중 둘은 같은 이미지와 좋아요를 가진다
+    List<Post> withComment = new ArrayList<>();
+    List<Post> withoutComment = new ArrayList<>();
+    for (int i = 0; i < 7; i++) {
+      Post post = postRepository.save(Post.builder()
+          .title("title " + i)
+          .content("content")
+          .member(writer)
+          .imageHash(i == 1 || i == 3 ? IMAGE_HASH : null)
+          .build());
+      if (i % 2 == 0) {
+        commentRepository.save(Comment.builder().member(writer).post(post).content("comment").build());
+        withComment.add(post);
+      } else {
+        likePostRepository.save(LikePost.builder().member(writer).post(post).build());
+        withoutComment.add(post);
+      }
+    }
+    imageBlobRepository.addReference(IMAGE_HASH);
+    imageBlobRepository.addReference(IMAGE_HASH);
+
+    ReflectionTestUtils.setField(scheduler, "chunkSize", 2);
+    try {
+      scheduler.updatePostDelete();
+    } finally {
+      ReflectionTestUtils.setField(scheduler, "chunkSize", 500);
+    }
+
+    for (Post post : withComment) {
+      assertTrue(postRepository.existsById(post.getId()));
+    }
+    for (Post post : withoutComment) {
+      assertFalse(postRepository.existsById(post.getId()));
+      assertFalse(likePostRepository.existsByMemberIdAndPostId(writer.getId(), post.getId()));
+    }
+    assertEquals(0, imageBlobRepository.findById(IMAGE_HASH).get().getRefCount());
+    assertEquals(0L, batchCheckpointRepository.findById("post-delete").get().getLastId());
+  }
+}
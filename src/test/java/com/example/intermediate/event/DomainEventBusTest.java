@@ -0,0 +1,135 @@
+package com.example.intermediate.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class DomainEventBusTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final RecordingSubscriber subscriber = new RecordingSubscriber();
+  private DomainEventBus domainEventBus;
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    subscriber.gate.countDown();
+    domainEventBus.close();
+  }
+
+  @Test
+  void deliversOnlyAfterCommitInBatches() throws InterruptedException {
+    start(100, 10);
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      for (long id = 1; id <= 25; id++) {
+        domainEventBus.publish(new PostDeleted(List.of(id)));
+      }
+      // 커밋 전에는 전달하지 않는다
+      assertTrue(domainEventBus.awaitIdle(1000));
+      assertEquals(0, subscriber.events.size());
+
+      for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+        synchronization.afterCommit();
+      }
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    assertTrue(domainEventBus.awaitIdle(5000));
+    assertEquals(25, subscriber.events.size());
+    assertTrue(subscriber.batchSizes.stream().allMatch(size -> size <= 10));
+    assertEquals(25, meterRegistry.counter("event.bus.delivered", "subscriber", "recording").count());
+  }
+
+  @Test
+  void dropsEventWhenQueueStaysFull() throws InterruptedException {
+    start(2, 10);
+    subscriber.gate = new CountDownLatch(1);
+    // 첫 이벤트는 전달 스레드가 가져가 막혀 있고, 다음 둘이 대기열을 채운다
+    domainEventBus.publish(new PostDeleted(List.of(1L)));
+    Thread.sleep(100);
+    domainEventBus.publish(new PostDeleted(List.of(2L)));
+    domainEventBus.publish(new PostDeleted(List.of(3L)));
+
+    // 발행한 스레드는 offerTimeoutMs 만큼만 기다리고 버린다
+    long started = System.nanoTime();
+    domainEventBus.publish(new PostDeleted(List.of(4L)));
+    long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+    assertTrue(waitedMs >= 50 && waitedMs < 1000);
+    assertEquals(1, meterRegistry.counter("event.bus.blocked", "subscriber", "recording").count());
+    assertEquals(1, meterRegistry.counter("event.bus.dropped", "subscriber", "recording").count());
+
+    subscriber.gate.countDown();
+    assertTrue(domainEventBus.awaitIdle(5000));
+    assertEquals(3, subscriber.events.size());
+  }
+
+  @Test
+  void publisherWaitsBrieflyForRoom() throws Exception {
+    start(2, 10);
+    subscriber.gate = new CountDownLatch(1);
+    domainEventBus.publish(new PostDeleted(List.of(1L)));
+    Thread.sleep(100);
+    domainEventBus.publish(new PostDeleted(List.of(2L)));
+    domainEventBus.publish(new PostDeleted(List.of(3L)));
+
+    // 기다리는 동안 자리가 나면 버리지 않는다
+    ReflectionTestUtils.setField(domainEventBus, "offerTimeoutMs", 5000L);
+    Thread publisher = new Thread(() -> domainEventBus.publish(new PostDeleted(List.of(4L))));
+    publisher.start();
+    publisher.join(300);
+    assertTrue(publisher.isAlive());
+
+    subscriber.gate.countDown();
+    publisher.join(5000);
+    assertTrue(domainEventBus.awaitIdle(5000));
+    assertEquals(4, subscriber.events.size());
+    assertEquals(0, meterRegistry.counter("event.bus.dropped", "subscriber", "recording").count());
+  }
+
+  private void start(int queueCapacity, int batchSize) {
+    domainEventBus = new DomainEventBus(List.of(subscriber), meterRegistry);
+    ReflectionTestUtils.setField(domainEventBus, "queueCapacity", queueCapacity);
+    ReflectionTestUtils.setField(domainEventBus, "batchSize", batchSize);
+    ReflectionTestUtils.setField(domainEventBus, "offerTimeoutMs", 50L);
+    domainEventBus.init();
+  }
+
+  private static class RecordingSubscriber implements DomainEventSubscriber {
+
+    private final List<DomainEvent> events = new CopyOnWriteArrayList<>();
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    // 열리기 전까지 전달 스레드를 붙잡아 둔다
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+
+    @Override
+    public String getSubscriberName() {
+      return "recording";
+    }
+
+    @Override
+    public boolean accepts(DomainEvent event) {
+      return event instanceof PostDeleted;
+    }
+
+    @Override
+    public void onEvents(List<DomainEvent> events) {
+      try {
+        gate.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      batchSizes.add(events.size());
+      this.events.addAll(events);
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package com.example.intermediate.jwt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.time.Duration;
+import java.util.Date;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TokenProviderTest {
+
+  private static final String SECRET =
+      "c3ByaW5nLWJvb3Qtc2VjdXJpdHktand0LXR1dG9yaWFsLWppd29vbi1zcHJpbmctYm9vdC1zZWN1cml0eS1qd3QtdHV0b3JpYWwK";
+
+  private TokenProvider tokenProvider;
+  private Cache<String, Claims> claimsCache;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    tokenProvider = new TokenProvider(SECRET, 100, null);
+    claimsCache = (Cache<String, Claims>) ReflectionTestUtils.getField(tokenProvider, "claimsCache");
+  }
+
+  @Test
+  void cachedClaimsExpireWithToken() throws InterruptedException {
+    String token = token(new Date(System.currentTimeMillis() + 1500));
+
+    Claims claims = tokenProvider.getClaims(token);
+    assertNotNull(claims);
+    assertSame(claims, tokenProvider.getClaims(token));
+
+    // 캐시 기간은 최대 10분이 아니라 토큰 만료 시각까지
+    Duration expiresAfter = claimsCache.policy().expireVariably().orElseThrow()
+        .getExpiresAfter(token).orElseThrow();
+    assertTrue(expiresAfter.toMillis() <= claims.getExpiration().getTime() - System.currentTimeMillis() + 10);
+
+    Thread.sleep(Math.max(claims.getExpiration().getTime() - System.currentTimeMillis(), 0) + 100);
+    assertNull(claimsCache.getIfPresent(token));
+    assertFalse(tokenProvider.validateToken(token));
+  }
+
+  @Test
+  void invalidTokensAreNotCached() {
+    assertFalse(tokenProvider.validateToken(token(new Date(System.currentTimeMillis() - 1000))));
+    assertFalse(tokenProvider.validateToken("not-a-token"));
+    assertEquals(0, claimsCache.estimatedSize());
+  }
+
+  private static String token(Date expiration) {
+    return Jwts.builder()
+        .setSubject("member")
+        .setExpiration(expiration)
+        .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+        .compact();
+  }
+}
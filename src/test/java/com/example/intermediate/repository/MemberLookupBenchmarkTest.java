@@ -0,0 +1,71 @@
+package com.example.intermediate.repository;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// 회원 100만 명에서 닉네임 조회 비용 비교 (인덱스 없음 / unique 인덱스)
+// ./gradlew test --tests '*MemberLookupBenchmarkTest' -Dbenchmark=true
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MemberLookupBenchmarkTest {
+
+  private static final Logger log = LoggerFactory.getLogger(MemberLookupBenchmarkTest.class);
+
+  private static final int MEMBERS = 1_000_000;
+  private static final int LOOKUPS = 200;
+
+  @Test
+  void nicknameLookup() throws SQLException {
+    try (Connection connection = DriverManager.getConnection(
+        "jdbc:h2:mem:member_benchmark;MODE=MySQL", "sa", "")) {
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("create table member (id bigint primary key, nickname varchar(255) not null,"
+            + " password varchar(255) not null, created_at timestamp, modified_at timestamp)");
+        statement.execute("insert into member select x, concat('member', x), 'password', now(), now()"
+            + " from system_range(1, " + MEMBERS + ")");
+      }
+
+      double before = lookup(connection);
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("alter table member add constraint uk_member_nickname unique (nickname)");
+      }
+      double after = lookup(connection);
+
+      log.info("findByNickname ({} members) : no index {} ms, unique index {} ms",
+          MEMBERS, String.format("%.3f", before), String.format("%.3f", after));
+      assertTrue(after < before);
+    }
+  }
+
+  // 조회 1건당 평균 ms
+  private double lookup(Connection connection) throws SQLException {
+    String sql = "select id, nickname, password from member where nickname = ?";
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      for (int i = 0; i < LOOKUPS / 10; i++) {
+        execute(statement);
+      }
+      long start = System.nanoTime();
+      for (int i = 0; i < LOOKUPS; i++) {
+        execute(statement);
+      }
+      return (System.nanoTime() - start) / 1_000_000.0 / LOOKUPS;
+    }
+  }
+
+  private void execute(PreparedStatement statement) throws SQLException {
+    statement.setString(1, "member" + ThreadLocalRandom.current().nextInt(1, MEMBERS + 1));
+    try (ResultSet resultSet = statement.executeQuery()) {
+      assertTrue(resultSet.next());
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package com.example.intermediate.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.intermediate.TestFixture;
+import com.example.intermediate.controller.request.CommentRequestDto;
+import com.example.intermediate.controller.request.RecommentRequestDto;
+import com.example.intermediate.controller.response.CommentResponseDto;
+import com.example.intermediate.controller.response.RecommentResponseDto;
+import com.example.intermediate.controller.response.ResponseDto;
+import com.example.intermediate.domain.Member;
+import com.example.intermediate.domain.Post;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+@SpringBootTest
+class CounterReconcilerTest {
+
+  @Autowired
+  private CounterReconciler counterReconciler;
+  @Autowired
+  private CommentService commentService;
+  @Autowired
+  private RecommentService recommentService;
+  @Autowired
+  private TestFixture fixture;
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private Member member;
+  private Post post;
+  private MockHttpServletRequest request;
+
+  @BeforeEach
+  void login() {
+    member = fixture.saveMember("counterMember");
+    post = fixture.savePost(member, "title");
+    request = fixture.login(member);
+  }
+
+  @AfterEach
+  void logout() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void countersFollowCreateAndDelete() {
+    Long firstCommentId = createComment();
+    Long secondCommentId = createComment();
+    Long recommentId = createRecomment(firstCommentId);
+    createRecomment(firstCommentId);
+    assertEquals(2, commentsNum(post.getId()));
+    assertEquals(2, recommentsNum(firstCommentId));
+    assertEquals(0, recommentsNum(secondCommentId));
+
+    assertTrue(recommentService.deleteRecomment(recommentId, request).isSuccess());
+    assertEquals(1, recommentsNum(firstCommentId));
+
+    assertTrue(commentService.deleteComment(secondCommentId, request).isSuccess());
+    assertEquals(1, commentsNum(post.getId()));
+  }
+
+  @Test
+  void reconcileRepairsSkewedCounters() {
+    Long commentId = createComment();
+    createRecomment(commentId);
+    Post untouched = fixture.savePost(member, "untouched");
+
+    // 저장된 값을 일부러 틀어 놓는다
+    jdbcTemplate.update("update post set comments_num = 7 where id = ?", post.getId());
+    jdbcTemplate.update("update comment set recomments_num = -3 where id = ?", commentId);
+    long version = jdbcTemplate.queryForObject("select version from post where id = ?", Long.class, untouched.getId());
+
+    counterReconciler.reconcile();
+
+    assertEquals(1, commentsNum(post.getId()));
+    assertEquals(1, recommentsNum(commentId));
+    // 맞는 행은 건드리지 않는다
+    assertEquals(version, jdbcTemplate.queryForObject("select version from post where id = ?", Long.class, untouched.getId()));
+  }
+
+  private Long createComment() {
+    ResponseDto<?> response = commentService.createComment(new CommentRequestDto(post.getId(), "comment"), request);
+    assertTrue(response.isSuccess());
+    return ((CommentResponseDto) response.getData()).getId();
+  }
+
+  private Long createRecomment(Long commentId) {
+    ResponseDto<?> response = recommentService.createRecomment(
+        new RecommentRequestDto(post.getId(), commentId, "recomment"), request);
+    assertTrue(response.isSuccess());
+    return ((RecommentResponseDto) response.getData()).getId();
+  }
+
+  private int commentsNum(Long postId) {
+    return jdbcTemplate.queryForObject("select comments_num from post where id = ?", Integer.class, postId);
+  }
+
+  private int recommentsNum(Long commentId) {
+    return jdbcTemplate.queryForObject("select recomments_num from comment where id = ?", Integer.class, commentId);
+  }
+}
@@ -0,0 +1,83 @@
+package com.example.intermediate.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class HotPostRankerTest {
+
+  private static final long HOUR = 60 * 60 * 1000;
+
+  private HotPostRanker hotPostRanker;
+  private long now;
+
+  @BeforeEach
+  void setUp() {
+    // 반감기 1시간, 상위 2개
+    hotPostRanker = new HotPostRanker(null);
+    ReflectionTestUtils.setField(hotPostRanker, "halfLifeMinutes", 60L);
+    ReflectionTestUtils.setField(hotPostRanker, "size", 2);
+    ReflectionTestUtils.setField(hotPostRanker, "minScore", 0.01);
+    hotPostRanker.init();
+    now = (long) ReflectionTestUtils.getField(hotPostRanker, "epochMillis");
+  }
+
+  @Test
+  void recentEventsOutweighOlderOnes() {
+    hotPostRanker.record(1L, 4, now);
+    hotPostRanker.record(3L, 1, now);
+    // 한 시간 뒤의 3 은 한 시간 전의 4 (지금 기준 2) 보다 크다
+    hotPostRanker.record(2L, 3, now + HOUR);
+
+    assertArrayEquals(new long[] {2L, 1L}, takeRanking());
+    assertNull(takeRanking());
+
+    hotPostRanker.record(3L, 5, now + HOUR);
+    assertArrayEquals(new long[] {3L, 2L}, takeRanking());
+  }
+
+  @Test
+  void rescanReplacesPostsWhoseScoreDropped() {
+    hotPostRanker.record(1L, 5, now);
+    hotPostRanker.record(2L, 4, now);
+    hotPostRanker.record(3L, 3, now);
+    assertArrayEquals(new long[] {1L, 2L}, takeRanking());
+
+    // 좋아요 취소로 점수가 줄어도 heap 밖의 게시글은 rescan 때 들어온다
+    hotPostRanker.record(1L, -5, now);
+    assertArrayEquals(new long[] {2L, 1L}, takeRanking());
+    hotPostRanker.rescan();
+    assertArrayEquals(new long[] {2L, 3L}, takeRanking());
+  }
+
+  @Test
+  void longDoubleMapKeepsProbingChainsOnRemove() {
+    LongDoubleMap map = new LongDoubleMap(4);
+    for (long key = 1; key <= 1000; key++) {
+      map.add(key, key);
+    }
+    for (long key = 1; key <= 1000; key += 2) {
+      assertTrue(map.remove(key));
+    }
+    assertFalse(map.remove(1L));
+    assertEquals(500, map.size());
+    for (long key = 1; key <= 1000; key++) {
+      assertEquals(key % 2 == 0 ? key : 0, map.get(key));
+    }
+
+    map.scaleAndPrune(0.5, 250);
+    assertEquals(251, map.size());
+    assertEquals(500, map.get(1000L));
+  }
+
+  private long[] takeRanking() {
+    HotPostRanker.TopK topK = (HotPostRanker.TopK) ReflectionTestUtils.getField(hotPostRanker, "topK");
+    return topK.takeIfChanged();
+  }
+}
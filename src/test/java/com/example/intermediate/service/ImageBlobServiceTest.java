@@ -0,0 +1,213 @@
+package com.example.intermediate.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.example.intermediate.domain.ImageBlob;
+import com.example.intermediate.repository.ImageBlobRepository;
+import com.example.intermediate.shared.ImageVariant;
+import com.example.intermediate.uril.S3Uploader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// S3 대역을 붙인 ImageBlobService 로 참조 수와 GC 를 확인
+@SpringBootTest
+class ImageBlobServiceTest {
+
+  @Autowired
+  private ImageBlobRepository imageBlobRepository;
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+  @Autowired
+  private SchedulerLockService schedulerLockService;
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  // 테스트마다 새 hash
+  private static int hashes;
+
+  private S3Uploader s3Uploader;
+  private ImageBlobService imageBlobService;
+
+  @BeforeEach
+  void setUp() {
+    s3Uploader = mock(S3Uploader.class);
+    imageBlobService = new ImageBlobService(imageBlobRepository, s3Uploader, transactionTemplate, schedulerLockService);
+  }
+
+  @Test
+  void sameHashSharesOneBlob() {
+    String hash = newHash();
+
+    ImageBlob first = imageBlobService.addReference(hash);
+    assertNull(first.getUrl());
+    assertEquals(1, first.getRefCount());
+    imageBlobService.complete(hash, "url", "medium", "thumbnail");
+
+    // 두 번째부터는 업로드된 url 을 그대로 쓴다
+    ImageBlob second = imageBlobService.addReference(hash);
+    assertEquals("url", second.getUrl());
+    assertEquals("medium", second.getMediumUrl());
+    assertEquals("thumbnail", second.getThumbnailUrl());
+    assertEquals(2, second.getRefCount());
+    assertEquals(1, jdbcTemplate.queryForObject("select count(*) from image_blob where hash = ?", Integer.class, hash));
+  }
+
+  @Test
+  void releaseLowersReferenceCounts() {
+    String hash = newHash();
+    String other = newHash();
+    for (int i = 0; i < 3; i++) {
+      imageBlobService.addReference(hash);
+    }
+    imageBlobService.addReference(other);
+
+    imageBlobService.release(hash);
+    imageBlobService.release(null);
+    assertEquals(2, refCount(hash));
+
+    // 게시글 여러 개를 지우면 이미지별로 묶어 내린다
+    imageBlobService.releaseAll(Arrays.asList(hash, null, other, hash));
+    assertEquals(0, refCount(hash));
+    assertEquals(0, refCount(other));
+  }
+
+  @Test
+  void collectGarbageDeletesS3ObjectsOutsideTransaction() {
+    String unreferenced = newHash();
+    String referenced = newHash();
+    imageBlobService.addReference(unreferenced);
+    imageBlobService.complete(unreferenced, "url", "medium", "thumbnail");
+    imageBlobService.release(unreferenced);
+    imageBlobService.addReference(referenced);
+
+    // S3 를 지우는 동안에는 트랜잭션도 잠금도 없고, 행은 삭제 표시만 커밋되어 있다
+    doAnswer(invocation -> {
+      assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+      String key = invocation.getArgument(0);
+      if (key.endsWith(unreferenced)) {
+        assertTrue(jdbcTemplate.queryForObject(
+            "select deleting from image_blob where hash = ?", Boolean.class, unreferenced));
+      }
+      return null;
+    }).when(s3Uploader).delete(anyString());
+
+    imageBlobService.collectGarbage();
+
+    verify(s3Uploader).delete(imageBlobService.getFileName(unreferenced, null));
+    for (ImageVariant variant : ImageVariant.values()) {
+      verify(s3Uploader).delete(imageBlobService.getFileName(unreferenced, variant));
+    }
+    verify(s3Uploader, never()).delete(imageBlobService.getFileName(referenced, null));
+    assertFalse(imageBlobRepository.existsById(unreferenced));
+    assertEquals(1, refCount(referenced));
+  }
+
+  @Test
+  void failedS3DeleteIsRetriedOnNextRun() {
+    String hash = newHash();
+    imageBlobService.addReference(hash);
+    imageBlobService.release(hash);
+
+    doThrow(new IllegalStateException("s3 unavailable")).when(s3Uploader).delete(anyString());
+    assertThrows(IllegalStateException.class, () -> imageBlobService.collectGarbage());
+    assertTrue(isDeleting(hash));
+
+    doAnswer(invocation -> null).when(s3Uploader).delete(anyString());
+    imageBlobService.collectGarbage();
+    assertFalse(imageBlobRepository.existsById(hash));
+  }
+
+  @Test
+  void addReferenceWaitsUntilDeletingBlobIsGone() throws Exception {
+    String hash = newHash();
+    imageBlobService.addReference(hash);
+    imageBlobService.complete(hash, "url", "medium", "thumbnail");
+    imageBlobService.release(hash);
+    jdbcTemplate.update("update image_blob set deleting = true where hash = ?", hash);
+
+    // 지우는 중인 객체의 url 을 넘겨주지 않는다
+    CompletableFuture<ImageBlob> adding = CompletableFuture.supplyAsync(() -> imageBlobService.addReference(hash));
+    Thread.sleep(300);
+    assertFalse(adding.isDone());
+    assertEquals(0, refCount(hash));
+
+    // GC 가 S3 삭제를 마치고 행을 지우면 새 blob 으로 다시 올린다
+    assertEquals(1, imageBlobRepository.deleteDeleting(hash));
+    ImageBlob imageBlob = adding.get(5, TimeUnit.SECONDS);
+    assertNull(imageBlob.getUrl());
+    assertEquals(1, imageBlob.getRefCount());
+    assertFalse(imageBlob.isDeleting());
+  }
+
+  @Test
+  void collectGarbageStopsBetweenBatchesWhenLeaseIsLost() {
+    for (int i = 0; i <= 100; i++) {
+      String hash = newHash();
+      imageBlobService.addReference(hash);
+      imageBlobService.release(hash);
+    }
+
+    // 첫 묶음을 지우는 도중 lease 를 잃는다
+    doAnswer(invocation -> {
+      ScheduledFuture<?> heartbeat = heldLocks().remove("image-blob-gc");
+      if (null != heartbeat) {
+        heartbeat.cancel(false);
+      }
+      return null;
+    }).when(s3Uploader).delete(anyString());
+
+    imageBlobService.collectGarbage();
+
+    // 다음 묶음은 시작하지 않는다
+    verify(s3Uploader, times(100 * (1 + ImageVariant.values().length))).delete(anyString());
+    assertTrue(jdbcTemplate.queryForObject(
+        "select count(*) from image_blob where ref_count = 0", Integer.class) > 0);
+
+    doAnswer(invocation -> null).when(s3Uploader).delete(anyString());
+    imageBlobService.collectGarbage();
+    assertEquals(0, jdbcTemplate.queryForObject(
+        "select count(*) from image_blob where ref_count = 0", Integer.class));
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, ScheduledFuture<?>> heldLocks() {
+    return (Map<String, ScheduledFuture<?>>) ReflectionTestUtils.getField(schedulerLockService, "heldLocks");
+  }
+
+  private int refCount(String hash) {
+    return jdbcTemplate.queryForObject("select ref_count from image_blob where hash = ?", Integer.class, hash);
+  }
+
+  private boolean isDeleting(String hash) {
+    List<Boolean> deleting = jdbcTemplate.queryForList(
+        "select deleting from image_blob where hash = ?", Boolean.class, hash);
+    return !deleting.isEmpty() && deleting.get(0);
+  }
+
+  private static String newHash() {
+    return String.format("%064x", System.nanoTime() * 1000 + (++hashes));
+  }
+}
@@ -0,0 +1,200 @@
+package com.example.intermediate.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.intermediate.TestFixture;
+import com.example.intermediate.controller.request.TokenDto;
+import com.example.intermediate.controller.response.ResponseDto;
+import com.example.intermediate.domain.Member;
+import com.example.intermediate.domain.Post;
+import com.example.intermediate.domain.UserDetailsImpl;
+import com.example.intermediate.jwt.TokenProvider;
+import com.example.intermediate.repository.LikePostRepository;
+import com.example.intermediate.repository.PostLikeShardRepository;
+import com.example.intermediate.repository.PostRepository;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@SpringBootTest
+class LikeServiceTest {
+
+  private static final int THREADS = 64;
+
+  @Autowired
+  private LikeService likeService;
+  @Autowired
+  private TokenProvider tokenProvider;
+  @Autowired
+  private TestFixture fixture;
+  @Autowired
+  private PostRepository postRepository;
+  @Autowired
+  private LikePostRepository likePostRepository;
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+  @Autowired
+  private PostLikeCounter postLikeCounter;
+  @Autowired
+  private PostLikeShardRepository postLikeShardRepository;
+
+  @Test
+  void concurrentLikesOnOnePostAreCountedExactly() throws Exception {
+    Member writer = fixture.saveMember("likeWriter");
+    Post post = fixture.savePost(writer, "hot post");
+
+    List<Member> members = new ArrayList<>();
+    List<String> refreshTokens = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++) {
+      Member member = fixture.saveMember("liker" + i);
+      TokenDto tokenDto = tokenProvider.generateTokenDto(member);
+      members.add(member);
+      refreshTokens.add(tokenDto.getRefreshToken());
+    }
+
+    // 다른 테스트가 남긴 좋아요와 같은 DB 를 쓰므로 전체 건수는 시작 시점 기준으로 비교
+    long likesBefore = likePostRepository.count();
+
+    // 모든 회원이 동시에 좋아요
+    toggleConcurrently(post.getId(), members, refreshTokens);
+    assertEquals(THREADS, postRepository.findById(post.getId()).orElseThrow().getLikesNum());
+    assertEquals(likesBefore + THREADS, likePostRepository.count());
+    assertEquals(THREADS, countLikes(post.getId()));
+
+    // 모든 회원이 동시에 좋아요 취소
+    toggleConcurrently(post.getId(), members, refreshTokens);
+    assertEquals(0, postRepository.findById(post.getId()).orElseThrow().getLikesNum());
+    assertEquals(likesBefore, likePostRepository.count());
+    assertEquals(0, countLikes(post.getId()));
+  }
+
+  @Test
+  void concurrentLikesOnShardedCounterAreCountedExactlyWhileFolding() throws Exception {
+    Member writer = fixture.saveMember("shardWriter");
+    Post post = fixture.savePost(writer, "sharded post");
+
+    List<Member> members = new ArrayList<>();
+    List<String> refreshTokens = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++) {
+      Member member = fixture.saveMember("shardLiker" + i);
+      members.add(member);
+      refreshTokens.add(tokenProvider.generateTokenDto(member).getRefreshToken());
+    }
+
+    ReflectionTestUtils.setField(postLikeCounter, "shards", 4);
+    try {
+      // 좋아요와 fold 가 동시에 일어나도 post 행과 shard 의 합계는 정확하다
+      long version = postLikeCounter.getVersion(postRepository.findById(post.getId()).orElseThrow());
+      foldWhile(() -> toggleConcurrently(post.getId(), members, refreshTokens));
+      assertEquals(THREADS, postLikeCounter.getLikesNum(postRepository.findById(post.getId()).orElseThrow()));
+      assertEquals(THREADS, countLikes(post.getId()));
+
+      // 다 합치면 shard 에는 남지 않고, 합치는 동안에는 버전이 바뀌지 않는다
+      Post liked = postRepository.findById(post.getId()).orElseThrow();
+      long likedVersion = postLikeCounter.getVersion(liked);
+      assertEquals(version + THREADS, likedVersion);
+      postLikeCounter.fold();
+      Post folded = postRepository.findById(post.getId()).orElseThrow();
+      assertEquals(THREADS, folded.getLikesNum());
+      assertEquals(0, postLikeShardRepository.sumLikesNum(post.getId()));
+      assertEquals(likedVersion, postLikeCounter.getVersion(folded));
+
+      foldWhile(() -> toggleConcurrently(post.getId(), members, refreshTokens));
+      postLikeCounter.fold();
+      assertEquals(0, postRepository.findById(post.getId()).orElseThrow().getLikesNum());
+      assertEquals(0, postLikeShardRepository.sumLikesNum(post.getId()));
+      assertEquals(0, countLikes(post.getId()));
+    } finally {
+      ReflectionTestUtils.setField(postLikeCounter, "shards", 0);
+    }
+  }
+
+  @Test
+  void concurrentTogglesByOneMemberKeepCounterInSync() throws Exception {
+    Member writer = fixture.saveMember("doubleTapWriter");
+    Post post = fixture.savePost(writer, "double tap");
+    Member member = fixture.saveMember("doubleTapper");
+    String refreshToken = tokenProvider.generateTokenDto(member).getRefreshToken();
+
+    // 한 회원이 같은 게시글을 동시에 여러 번 누르면 좋아요는 최대 하나, 좋아요 수는 행 수와 같다
+    toggleConcurrently(post.getId(), Collections.nCopies(THREADS, member), Collections.nCopies(THREADS, refreshToken));
+    int likes = countLikes(post.getId());
+    assertTrue(likes <= 1);
+    assertEquals(likes, postRepository.findById(post.getId()).orElseThrow().getLikesNum());
+  }
+
+  // job 이 끝날 때까지 다른 스레드에서 fold 를 계속 돌린다
+  private void foldWhile(Toggle job) throws Exception {
+    AtomicBoolean running = new AtomicBoolean(true);
+    ExecutorService folder = Executors.newSingleThreadExecutor();
+    Future<?> folding = folder.submit(() -> {
+      while (running.get()) {
+        postLikeCounter.fold();
+      }
+    });
+    try {
+      job.run();
+    } finally {
+      running.set(false);
+      folding.get(60, TimeUnit.SECONDS);
+      folder.shutdown();
+    }
+  }
+
+  private interface Toggle {
+    void run() throws Exception;
+  }
+
+  private void toggleConcurrently(Long postId, List<Member> members, List<String> refreshTokens)
+      throws Exception {
+    ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<ResponseDto<?>>> futures = new ArrayList<>();
+
+    for (int i = 0; i < THREADS; i++) {
+      Member member = members.get(i);
+      String refreshToken = refreshTokens.get(i);
+      futures.add(executorService.submit(() -> {
+        UserDetailsImpl userDetails = new UserDetailsImpl(member);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer access-token");
+        request.addHeader("Refresh-Token", refreshToken);
+
+        start.await();
+        try {
+          return likeService.likePost(postId, request);
+        } finally {
+          SecurityContextHolder.clearContext();
+        }
+      }));
+    }
+
+    start.countDown();
+    for (Future<ResponseDto<?>> future : futures) {
+      assertTrue(future.get(60, TimeUnit.SECONDS).isSuccess());
+    }
+    executorService.shutdown();
+  }
+
+  private int countLikes(Long postId) {
+    return jdbcTemplate.queryForObject("select count(*) from like_post where post_id = ?", Integer.class, postId);
+  }
+}
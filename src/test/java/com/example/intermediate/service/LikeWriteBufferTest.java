@@ -0,0 +1,253 @@
+package com.example.intermediate.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+import com.example.intermediate.TestFixture;
+import com.example.intermediate.controller.response.PostResponseDto;
+import com.example.intermediate.domain.Comment;
+import com.example.intermediate.domain.Member;
+import com.example.intermediate.domain.Post;
+import com.example.intermediate.repository.CommentRepository;
+import com.example.intermediate.repository.LikePostRepository;
+import com.example.intermediate.repository.PostRepository;
+import com.example.intermediate.shared.LikeTargetType;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 주기 반영은 테스트 중에 돌지 않도록 길게
+@SpringBootTest(properties = {
+    "like.write-behind.enabled=true",
+    "like.write-behind.flush-interval-ms=3600000",
+    "like.write-behind.flush-threshold=1000000"})
+class LikeWriteBufferTest {
+
+  private static final int THREADS = 16;
+
+  @Autowired
+  private LikeWriteBuffer likeWriteBuffer;
+  @Autowired
+  private PostService postService;
+  @Autowired
+  private PostLikeCounter postLikeCounter;
+  @Autowired
+  private PostDetailCache postDetailCache;
+  @Autowired
+  private TestFixture fixture;
+  @Autowired
+  private PostRepository postRepository;
+  @Autowired
+  private CommentRepository commentRepository;
+  @Autowired
+  private LikePostRepository likePostRepository;
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Test
+  void toggleAndUntoggleBeforeFlushNeverReachDatabase() {
+    Post post = fixture.savePost();
+    Member member = fixture.saveMember("bufferMember");
+
+    assertTrue(togglePost(likeWriteBuffer, member, post));
+    assertEquals(1, likeWriteBuffer.getPendingDelta(LikeTargetType.POST, post.getId()));
+    assertFalse(togglePost(likeWriteBuffer, member, post));
+    assertEquals(0, likeWriteBuffer.getPendingDelta(LikeTargetType.POST, post.getId()));
+
+    // 상쇄된 건은 쓰지 않는다
+    assertEquals(0, likeWriteBuffer.flush());
+    assertEquals(0, countLikes(post.getId()));
+    assertEquals(0, likesNum(post.getId()));
+  }
+
+  @Test
+  void pendingLikesAreShownOnReadsUntilFlushed() {
+    Post post = fixture.savePost();
+    Comment comment = fixture.saveComment(post.getMember(), post);
+    for (int i = 0; i < 3; i++) {
+      Member member = fixture.saveMember("bufferMember");
+      togglePost(likeWriteBuffer, member, post);
+      if (i < 2) {
+        likeWriteBuffer.toggle(member.getId(), LikeTargetType.COMMENT, comment.getId(), () -> false);
+      }
+    }
+
+    PostResponseDto postResponseDto = (PostResponseDto) postService.getPost(post.getId()).getData();
+    assertEquals(3, postResponseDto.getLikesNum());
+    assertEquals(2, postResponseDto.getCommentResponseDtoList().get(0).getLikesNum());
+    assertEquals(0, countLikes(post.getId()));
+
+    assertEquals(5, likeWriteBuffer.flush());
+    assertEquals(0, likeWriteBuffer.getPendingDelta(LikeTargetType.POST, post.getId()));
+    assertEquals(0, likeWriteBuffer.getPendingDelta(LikeTargetType.COMMENT, comment.getId()));
+    assertEquals(3, countLikes(post.getId()));
+    assertEquals(3, likesNum(post.getId()));
+    assertEquals(2, commentRepository.findById(comment.getId()).orElseThrow().getLikesNum());
+  }
+
+  @Test
+  void flushEvictsDetailReadBeforePendingLikesWereCleared() {
+    Post post = fixture.savePost();
+    Comment comment = fixture.saveComment(post.getMember(), post);
+    Member member = fixture.saveMember("bufferMember");
+    togglePost(likeWriteBuffer, member, post);
+    likeWriteBuffer.toggle(member.getId(), LikeTargetType.COMMENT, comment.getId(), () -> false);
+
+    // 커밋 직후, 버퍼를 정리하기 전에 상세를 읽으면 DB 와 버퍼에서 같은 좋아요를 두 번 센다
+    TransactionTemplate committingThenReading = spy(transactionTemplate);
+    doAnswer(invocation -> {
+      invocation.callRealMethod();
+      PostResponseDto doubleCounted = (PostResponseDto) postService.getPost(post.getId()).getData();
+      assertEquals(2, doubleCounted.getLikesNum());
+      assertEquals(2, doubleCounted.getCommentResponseDtoList().get(0).getLikesNum());
+      return null;
+    }).when(committingThenReading).executeWithoutResult(any());
+    ReflectionTestUtils.setField(likeWriteBuffer, "transactionTemplate", committingThenReading);
+    try {
+      assertEquals(2, likeWriteBuffer.flush());
+    } finally {
+      ReflectionTestUtils.setField(likeWriteBuffer, "transactionTemplate", transactionTemplate);
+    }
+
+    // 정리한 뒤 캐시를 지우므로 다음 조회는 한 번만 센다
+    PostResponseDto postResponseDto = (PostResponseDto) postService.getPost(post.getId()).getData();
+    assertEquals(1, postResponseDto.getLikesNum());
+    assertEquals(1, postResponseDto.getCommentResponseDtoList().get(0).getLikesNum());
+  }
+
+  @Test
+  void flushWhileTogglingKeepsFinalState() throws Exception {
+    Post post = fixture.savePost();
+    List<Member> likers = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++) {
+      likers.add(fixture.saveMember("bufferMember"));
+    }
+
+    // 홀수 번째 회원은 홀수 번 눌러 좋아요, 나머지는 짝수 번 눌러 취소 상태로 끝난다
+    ExecutorService executorService = Executors.newFixedThreadPool(THREADS + 1);
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicBoolean toggling = new AtomicBoolean(true);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++) {
+      Member member = likers.get(i);
+      int toggles = 20 + i % 2;
+      futures.add(executorService.submit(() -> {
+        start.await();
+        for (int j = 0; j < toggles; j++) {
+          togglePost(likeWriteBuffer, member, post);
+        }
+        return null;
+      }));
+    }
+    Future<?> flusher = executorService.submit(() -> {
+      start.await();
+      while (toggling.get()) {
+        likeWriteBuffer.flush();
+      }
+      return null;
+    });
+
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get(60, TimeUnit.SECONDS);
+    }
+    toggling.set(false);
+    flusher.get(60, TimeUnit.SECONDS);
+    executorService.shutdown();
+    likeWriteBuffer.flush();
+
+    assertEquals(0, likeWriteBuffer.getPendingDelta(LikeTargetType.POST, post.getId()));
+    assertEquals(THREADS / 2, countLikes(post.getId()));
+    assertEquals(THREADS / 2, likesNum(post.getId()));
+  }
+
+  @Test
+  void flushDoesNotCountRowsAlreadyWrittenWhenDriverReportsNoInfo() {
+    // rewriteBatchedStatements 를 켠 MySQL 처럼 batch 건수를 모두 SUCCESS_NO_INFO 로 돌려준다
+    JdbcTemplate noInfoJdbcTemplate = spy(jdbcTemplate);
+    doAnswer(invocation -> {
+      int[] counts = (int[]) invocation.callRealMethod();
+      Arrays.fill(counts, Statement.SUCCESS_NO_INFO);
+      return counts;
+    }).when(noInfoJdbcTemplate).batchUpdate(anyString(), anyList());
+    LikeWriteBuffer buffer = newBuffer(noInfoJdbcTemplate);
+
+    Post post = fixture.savePost();
+    Member member = fixture.saveMember("bufferMember");
+    Member other = fixture.saveMember("bufferMember");
+    assertTrue(togglePost(buffer, member, post));
+    assertTrue(togglePost(buffer, other, post));
+
+    // 반영 전에 다른 경로(동기 처리)로 같은 좋아요가 먼저 저장된 경우
+    transactionTemplate.executeWithoutResult(status -> {
+      likePostRepository.insertIfAbsent(member.getId(), post.getId());
+      postLikeCounter.add(post.getId(), 1);
+    });
+
+    assertEquals(2, buffer.flush());
+    assertEquals(2, countLikes(post.getId()));
+    assertEquals(2, likesNum(post.getId()));
+  }
+
+  @Test
+  void closeDrainsPendingLikes() {
+    LikeWriteBuffer buffer = newBuffer(jdbcTemplate);
+    Post post = fixture.savePost();
+    for (int i = 0; i < 3; i++) {
+      togglePost(buffer, fixture.saveMember("bufferMember"), post);
+    }
+
+    buffer.close();
+    assertEquals(3, countLikes(post.getId()));
+    assertEquals(3, likesNum(post.getId()));
+    assertEquals(0, buffer.getPendingDelta(LikeTargetType.POST, post.getId()));
+
+    // 닫힌 뒤에는 호출한 쪽에서 동기 처리
+    assertFalse(buffer.isEnabled());
+    assertNull(togglePost(buffer, fixture.saveMember("bufferMember"), post));
+  }
+
+  private LikeWriteBuffer newBuffer(JdbcTemplate jdbcTemplate) {
+    LikeWriteBuffer buffer = new LikeWriteBuffer(jdbcTemplate, transactionTemplate, postLikeCounter, postDetailCache);
+    ReflectionTestUtils.setField(buffer, "enabled", true);
+    ReflectionTestUtils.setField(buffer, "maxPending", 1000);
+    ReflectionTestUtils.setField(buffer, "flushThreshold", 1000);
+    ReflectionTestUtils.setField(buffer, "maxFlushSize", 1000);
+    return buffer;
+  }
+
+  private Boolean togglePost(LikeWriteBuffer buffer, Member member, Post post) {
+    return buffer.toggle(member.getId(), LikeTargetType.POST, post.getId(),
+        () -> likePostRepository.existsByMemberIdAndPostId(member.getId(), post.getId()));
+  }
+
+  private int countLikes(Long postId) {
+    return jdbcTemplate.queryForObject("select count(*) from like_post where post_id = ?", Integer.class, postId);
+  }
+
+  private int likesNum(Long postId) {
+    return postLikeCounter.getLikesNum(postRepository.findById(postId).orElseThrow());
+  }
+}
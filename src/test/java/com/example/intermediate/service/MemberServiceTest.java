@@ -0,0 +1,285 @@
+package com.example.intermediate.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.intermediate.TestFixture;
+import com.example.intermediate.controller.request.MemberRequestDto;
+import com.example.intermediate.controller.request.MypageRequestDto;
+import com.example.intermediate.controller.response.ResponseDto;
+import com.example.intermediate.controller.response.mypage.MypageStreamWriter;
+import com.example.intermediate.controller.response.mypage.PostListMyPageDto;
+import com.example.intermediate.controller.response.mypage.ResponseMypageDto;
+import com.example.intermediate.domain.Comment;
+import com.example.intermediate.domain.LikeCo;
+import com.example.intermediate.domain.LikePost;
+import com.example.intermediate.domain.LikeReco;
+import com.example.intermediate.domain.Member;
+import com.example.intermediate.domain.Post;
+import com.example.intermediate.domain.Recomment;
+import com.example.intermediate.repository.LikeCoRepository;
+import com.example.intermediate.repository.LikePostRepository;
+import com.example.intermediate.repository.LikeRecoRepository;
+import com.example.intermediate.repository.PostRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@SpringBootTest
+class MemberServiceTest {
+
+  @Autowired
+  private MemberService memberService;
+  @Autowired
+  private MypageReader mypageReader;
+  @Autowired
+  private TestFixture fixture;
+  @Autowired
+  private ObjectMapper objectMapper;
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+  @Autowired
+  private LikePostRepository likePostRepository;
+  @Autowired
+  private LikeCoRepository likeCoRepository;
+  @Autowired
+  private LikeRecoRepository likeRecoRepository;
+  @Autowired
+  private PostRepository postRepository;
+  @Autowired
+  private MypageStreamWriter mypageStreamWriter;
+  @Autowired
+  private RequestMappingHandlerAdapter requestMappingHandlerAdapter;
+
+  private Member member;
+  private MockHttpServletRequest request;
+
+  @BeforeEach
+  void login() {
+    member = fixture.saveMember("mypageMember");
+    request = fixture.login(member);
+  }
+
+  @AfterEach
+  void logout() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void createMemberMapsOnlyNicknameConflictToDuplicatedNickname() {
+    MemberRequestDto requestDto = new MemberRequestDto(TestFixture.nickname("signup"), "password", "password");
+    assertTrue(memberService.createMember(requestDto).isSuccess());
+
+    ResponseDto<?> duplicated = memberService.createMember(requestDto);
+    assertFalse(duplicated.isSuccess());
+    assertEquals("DUPLICATED_NICKNAME", objectMapper.valueToTree(duplicated).at("/error/code").asText());
+
+    // 다른 제약 위반은 닉네임 중복으로 바꾸지 않는다
+    assertThrows(DataIntegrityViolationException.class,
+        () -> memberService.createMember(new MemberRequestDto("x".repeat(300), "password", "password")));
+  }
+
+  @Test
+  void streamedMypageMatchesMaterializedResponse() throws Exception {
+    Member other = fixture.saveMember("mypageOther");
+    for (int i = 0; i < 3; i++) {
+      Post myPost = fixture.savePost(member, "my post " + i);
+      Post otherPost = fixture.savePost(other, "other post " + i);
+      Comment myComment = fixture.saveComment(member, otherPost);
+      Comment otherComment = fixture.saveComment(other, myPost);
+      fixture.saveRecomment(member, otherComment);
+      Recomment otherRecomment = fixture.saveRecomment(other, myComment);
+
+      likePostRepository.save(LikePost.builder().member(member).post(otherPost).build());
+      likeCoRepository.save(LikeCo.builder().member(member).comment(otherComment).build());
+      likeRecoRepository.save(LikeReco.builder().member(member).recomment(otherRecomment).build());
+    }
+
+    ResponseMypageDto writes = memberService.mypageWrite(request, new MypageRequestDto());
+    assertEquals(3, writes.getPostList().size());
+    assertEquals(readTree(writes), readStream(memberService.streamMypageWrite(request).getBody()));
+
+    ResponseMypageDto likes = memberService.mypageLike(request, new MypageRequestDto());
+    assertEquals(3, likes.getRecommentList().size());
+    assertEquals(readTree(likes), readStream(memberService.streamMypageLike(request).getBody()));
+  }
+
+  @Test
+  void streamFailureLeavesJsonUnterminated() {
+    fixture.savePost(member, "stream post");
+    Long memberId = member.getId();
+    StreamingResponseBody body = mypageStreamWriter.stream(
+        () -> Stream.concat(postRepository.streamMypageByMemberId(memberId),
+            Stream.generate(() -> {
+              throw new IllegalStateException("db down");
+            })),
+        Stream::empty, Stream::empty).getBody();
+
+    // 이미 쓴 앞부분의 괄호를 닫지 않고 예외를 그대로 던진다
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    assertThrows(IllegalStateException.class, () -> body.writeTo(output));
+    assertTrue(output.toString().startsWith("{\"success\":true,\"postList\":[{"));
+    assertThrows(JsonProcessingException.class, () -> objectMapper.readTree(output.toByteArray()));
+  }
+
+  @Test
+  void mypageStreamRunsOnDedicatedExecutorWithTimeout() {
+    // 스트리밍 응답은 기본 executor 가 아니라 AsyncConfiguration 의 스레드에서, 정한 시간 안에 끝나야 한다
+    Object taskExecutor = ReflectionTestUtils.getField(requestMappingHandlerAdapter, "taskExecutor");
+    assertEquals("mvc-async-", ((ThreadPoolTaskExecutor) taskExecutor).getThreadNamePrefix());
+    assertEquals(60000L, ReflectionTestUtils.getField(requestMappingHandlerAdapter, "asyncRequestTimeout"));
+  }
+
+  @Test
+  void mypagePagesWithCursorsInConstantQueries() {
+    Member other = fixture.saveMember("mypagePageOther");
+    List<Long> likedPostIds = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      fixture.savePost(member, "page post " + i);
+      Post otherPost = fixture.savePost(other, "page other post " + i);
+      likePostRepository.save(LikePost.builder().member(member).post(otherPost).build());
+      likedPostIds.add(otherPost.getId());
+    }
+
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    MypageRequestDto pageRequest = new MypageRequestDto();
+    pageRequest.setSize(2);
+    statistics.clear();
+    ResponseMypageDto first = memberService.mypageLike(request, pageRequest);
+    // 목록마다 쿼리 한 번
+    assertEquals(3, statistics.getPrepareStatementCount());
+    assertEquals(likedPostIds.subList(0, 2), postIds(first));
+    assertEquals(likedPostIds.get(1), first.getNextPostCursor());
+    assertNull(first.getNextCommentCursor());
+
+    pageRequest.setPostCursor(first.getNextPostCursor());
+    ResponseMypageDto second = memberService.mypageLike(request, pageRequest);
+    assertEquals(likedPostIds.subList(2, 4), postIds(second));
+
+    pageRequest.setPostCursor(second.getNextPostCursor());
+    ResponseMypageDto last = memberService.mypageLike(request, pageRequest);
+    assertEquals(likedPostIds.subList(4, 5), postIds(last));
+    assertNull(last.getNextPostCursor());
+
+    pageRequest.setPostCursor(null);
+    pageRequest.setSize(5);
+    ResponseMypageDto writes = memberService.mypageWrite(request, pageRequest);
+    assertEquals(5, writes.getPostList().size());
+    assertNull(writes.getNextPostCursor());
+  }
+
+  @Test
+  void mypageFailsWhenSectionsTimeOut() throws Exception {
+    // 조회 스레드를 모두 붙잡아 두면 목록 조회가 대기열에서 시간을 넘긴다
+    ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(mypageReader, "executor");
+    CountDownLatch release = new CountDownLatch(1);
+    for (int i = 0; i < executor.getMaximumPoolSize(); i++) {
+      executor.execute(() -> {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+    }
+    ReflectionTestUtils.setField(mypageReader, "timeoutMs", 200L);
+    try {
+      ResponseMypageDto responseMypageDto = memberService.mypageWrite(request, new MypageRequestDto());
+      assertFalse(responseMypageDto.isSuccess());
+      assertEquals("REQUEST_TIMEOUT", objectMapper.valueToTree(responseMypageDto).at("/error/code").asText());
+    } finally {
+      ReflectionTestUtils.setField(mypageReader, "timeoutMs", 3000L);
+      release.countDown();
+    }
+
+    assertTrue(memberService.mypageWrite(request, new MypageRequestDto()).isSuccess());
+  }
+
+  @Test
+  void mypageFailsFastWhenQueueIsFull() throws Exception {
+    // 조회 스레드와 대기열을 모두 채우면 요청 스레드에서 읽지 않고 바로 실패한다
+    ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(mypageReader, "executor");
+    CountDownLatch release = new CountDownLatch(1);
+    Runnable blocker = () -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    };
+    // 앞선 테스트가 남긴 조회가 빠진 뒤, 모든 스레드가 붙잡히고 대기열이 찰 때까지 채운다
+    while (executor.getActiveCount() > 0 || !executor.getQueue().isEmpty()) {
+      Thread.sleep(10);
+    }
+    while (executor.getActiveCount() < executor.getMaximumPoolSize()
+        || executor.getQueue().remainingCapacity() > 0) {
+      try {
+        executor.execute(blocker);
+      } catch (RejectedExecutionException e) {
+        Thread.sleep(10);
+      }
+    }
+    try {
+      long started = System.nanoTime();
+      ResponseMypageDto responseMypageDto = memberService.mypageLike(request, new MypageRequestDto());
+      assertFalse(responseMypageDto.isSuccess());
+      assertEquals("MYPAGE_BUSY", objectMapper.valueToTree(responseMypageDto).at("/error/code").asText());
+      assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(1));
+    } finally {
+      release.countDown();
+    }
+
+    // 대기열이 빠지면 다시 조회된다
+    while (!executor.getQueue().isEmpty()) {
+      Thread.sleep(10);
+    }
+    assertTrue(memberService.mypageLike(request, new MypageRequestDto()).isSuccess());
+  }
+
+  private static List<Long> postIds(ResponseMypageDto responseMypageDto) {
+    return responseMypageDto.getPostList().stream()
+        .map(PostListMyPageDto::getPostId)
+        .collect(Collectors.toList());
+  }
+
+  // 숫자 노드 타입까지 같도록 직렬화한 뒤 다시 읽어서 비교
+  private JsonNode readTree(ResponseMypageDto responseMypageDto) throws Exception {
+    return objectMapper.readTree(objectMapper.writeValueAsBytes(responseMypageDto));
+  }
+
+  private JsonNode readStream(Object body) throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ((StreamingResponseBody) body).writeTo(output);
+    return objectMapper.readTree(output.toByteArray());
+  }
+}
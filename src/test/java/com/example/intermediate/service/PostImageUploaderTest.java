@@ -0,0 +1,296 @@
+package com.example.intermediate.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.intermediate.TestFixture;
+import com.example.intermediate.controller.response.SerializedResponseCache;
+import com.example.intermediate.domain.Post;
+import com.example.intermediate.repository.PostRepository;
+import com.example.intermediate.service.PostImageUploader.PendingImage;
+import com.example.intermediate.shared.ImageStatus;
+import com.example.intermediate.uril.ImageResizer;
+import com.example.intermediate.uril.S3Uploader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 업로드 스레드 1개, 대기열 1칸짜리 uploader 에 S3 대역을 붙여 확인
+@SpringBootTest
+class PostImageUploaderTest {
+
+  private static final int MAX_IN_FLIGHT_BYTES = 1024 * 1024;
+  private static final long BACKOFF_MS = 50;
+
+  @Autowired
+  private ImageResizer imageResizer;
+  @Autowired
+  private ImageBlobService imageBlobService;
+  @Autowired
+  private PostRepository postRepository;
+  @Autowired
+  private TestFixture fixture;
+  @Autowired
+  private PostDetailCache postDetailCache;
+  @Autowired
+  private SerializedResponseCache serializedResponseCache;
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  // 이미지 내용이 매번 달라야 중복 제거에 걸리지 않는다
+  private static int images;
+
+  private S3Uploader s3Uploader;
+  private PostImageUploader postImageUploader;
+
+  @BeforeEach
+  void setUp() {
+    s3Uploader = mock(S3Uploader.class);
+    when(s3Uploader.upload(any(InputStream.class), anyLong(), anyString(), anyString()))
+        .thenAnswer(invocation -> "https://bucket/" + invocation.getArgument(3));
+    postImageUploader = new PostImageUploader(s3Uploader, imageResizer, imageBlobService, postRepository,
+        postDetailCache, serializedResponseCache);
+    ReflectionTestUtils.setField(postImageUploader, "threads", 1);
+    ReflectionTestUtils.setField(postImageUploader, "variantThreads", 1);
+    ReflectionTestUtils.setField(postImageUploader, "queueCapacity", 1);
+    ReflectionTestUtils.setField(postImageUploader, "maxInFlightBytes", MAX_IN_FLIGHT_BYTES);
+    ReflectionTestUtils.setField(postImageUploader, "maxAttempts", 3);
+    ReflectionTestUtils.setField(postImageUploader, "backoffMs", BACKOFF_MS);
+    postImageUploader.init();
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    postImageUploader.close();
+  }
+
+  @Test
+  void uploadsOnlyAfterCommit() throws Exception {
+    Post post = fixture.savePost();
+    PendingImage pendingImage = transactionTemplate.execute(status -> {
+      PendingImage prepared = prepare(post);
+      // 커밋 전에는 올리지 않는다
+      verify(s3Uploader, never()).upload(any(InputStream.class), anyLong(), anyString(), anyString());
+      return prepared;
+    });
+
+    awaitStatus(post.getId(), ImageStatus.DONE);
+    assertEquals("https://bucket/images/" + imageHash(post.getId()), imgUrl(post.getId()));
+    assertEquals(1, refCount(imageHash(post.getId())));
+    awaitReleased(pendingImage);
+  }
+
+  @Test
+  void rollbackDiscardsPreparedImage() {
+    Post post = fixture.savePost();
+    PendingImage pendingImage = transactionTemplate.execute(status -> {
+      PendingImage prepared = prepare(post);
+      assertTrue(Files.exists(file(prepared)));
+      status.setRollbackOnly();
+      return prepared;
+    });
+
+    assertReleased(pendingImage);
+    verify(s3Uploader, never()).upload(any(InputStream.class), anyLong(), anyString(), anyString());
+  }
+
+  @Test
+  void failsFastWhenInFlightBytesAreExhausted() {
+    Semaphore inFlightBytes = (Semaphore) ReflectionTestUtils.getField(postImageUploader, "inFlightBytes");
+    inFlightBytes.acquireUninterruptibly(MAX_IN_FLIGHT_BYTES);
+    try {
+      long startedAt = System.nanoTime();
+      transactionTemplate.executeWithoutResult(status -> assertNull(prepare(null)));
+      assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt) < 1000);
+    } finally {
+      inFlightBytes.release(MAX_IN_FLIGHT_BYTES);
+    }
+  }
+
+  @Test
+  void retriesWithBackoff() throws Exception {
+    when(s3Uploader.upload(any(InputStream.class), anyLong(), anyString(), anyString()))
+        .thenThrow(new IllegalStateException("s3 unavailable"))
+        .thenThrow(new IllegalStateException("s3 unavailable"))
+        .thenAnswer(invocation -> {
+          // 재시도마다 파일을 처음부터 다시 읽는다
+          InputStream inputStream = invocation.getArgument(0);
+          assertEquals((long) invocation.getArgument(1), inputStream.readAllBytes().length);
+          return "https://bucket/" + invocation.getArgument(3);
+        });
+
+    Post post = fixture.savePost();
+    long startedAt = System.nanoTime();
+    transactionTemplate.executeWithoutResult(status -> prepare(post));
+
+    awaitStatus(post.getId(), ImageStatus.DONE);
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt) >= BACKOFF_MS + BACKOFF_MS * 2);
+    verify(s3Uploader, times(3)).upload(any(InputStream.class), anyLong(), anyString(), anyString());
+  }
+
+  @Test
+  void failsAfterLastAttemptAndReleasesReference() throws Exception {
+    when(s3Uploader.upload(any(InputStream.class), anyLong(), anyString(), anyString()))
+        .thenThrow(new IllegalStateException("s3 unavailable"));
+
+    Post post = fixture.savePost();
+    PendingImage pendingImage = transactionTemplate.execute(status -> prepare(post));
+
+    awaitStatus(post.getId(), ImageStatus.FAILED);
+    verify(s3Uploader, times(3)).upload(any(InputStream.class), anyLong(), anyString(), anyString());
+    assertEquals(0, refCount(hash(pendingImage)));
+    assertNull(imgUrl(post.getId()));
+    awaitReleased(pendingImage);
+  }
+
+  @Test
+  void fullQueueMarksImageFailed() throws Exception {
+    CountDownLatch uploading = new CountDownLatch(1);
+    CountDownLatch resume = new CountDownLatch(1);
+    blockUploads(uploading, resume);
+
+    // 첫 업로드가 스레드를 붙잡고, 두 번째가 대기열을 채우면 세 번째는 들어갈 자리가 없다
+    Post running = fixture.savePost();
+    transactionTemplate.executeWithoutResult(status -> prepare(running));
+    assertTrue(uploading.await(5, TimeUnit.SECONDS));
+    Post queued = fixture.savePost();
+    PendingImage queuedImage = transactionTemplate.execute(status -> prepare(queued));
+    Post rejected = fixture.savePost();
+    PendingImage rejectedImage = transactionTemplate.execute(status -> prepare(rejected));
+
+    assertEquals(ImageStatus.FAILED, imageStatus(rejected.getId()));
+    assertFalse(Files.exists(file(rejectedImage)));
+
+    resume.countDown();
+    awaitStatus(running.getId(), ImageStatus.DONE);
+    awaitStatus(queued.getId(), ImageStatus.DONE);
+    awaitReleased(queuedImage);
+  }
+
+  @Test
+  void staleUploadDoesNotOverwriteNewerImage() throws Exception {
+    CountDownLatch uploading = new CountDownLatch(1);
+    CountDownLatch resume = new CountDownLatch(1);
+    blockUploads(uploading, resume);
+
+    Post post = fixture.savePost();
+    PendingImage pendingImage = transactionTemplate.execute(status -> prepare(post));
+    assertTrue(uploading.await(5, TimeUnit.SECONDS));
+
+    // 업로드가 끝나기 전에 게시글이 다른 이미지로 수정됨
+    jdbcTemplate.update("update post set image_upload_id = 'newer-upload' where id = ?", post.getId());
+    resume.countDown();
+    awaitReleased(pendingImage);
+
+    assertEquals(ImageStatus.PENDING, imageStatus(post.getId()));
+    assertNull(imgUrl(post.getId()));
+    // 올라간 blob 은 참조를 내려 GC 대상이 된다
+    assertEquals(0, refCount(hash(pendingImage)));
+    assertEquals(0, postRepository.updateImage(post.getId(), pendingImage.getUploadId(), null,
+        "https://bucket/stale", null, null, ImageStatus.DONE));
+  }
+
+  private void blockUploads(CountDownLatch uploading, CountDownLatch resume) {
+    when(s3Uploader.upload(any(InputStream.class), anyLong(), anyString(), anyString())).thenAnswer(invocation -> {
+      uploading.countDown();
+      assertTrue(resume.await(10, TimeUnit.SECONDS));
+      return "https://bucket/" + invocation.getArgument(3);
+    });
+  }
+
+  // 이미지로 디코딩되지 않는 내용이라 축소본 없이 원본만 올라간다
+  private PendingImage prepare(Post post) {
+    MockMultipartFile image = new MockMultipartFile("image", "image.bin", "application/octet-stream",
+        ("image-" + (++images) + "-" + System.nanoTime()).getBytes(StandardCharsets.UTF_8));
+    try {
+      PendingImage pendingImage = postImageUploader.prepare(image);
+      if (null != pendingImage && null != post) {
+        jdbcTemplate.update("update post set image_status = 'PENDING', image_upload_id = ? where id = ?",
+            pendingImage.getUploadId(), post.getId());
+        postImageUploader.uploadAfterCommit(pendingImage, post.getId());
+      }
+      return pendingImage;
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private void assertReleased(PendingImage pendingImage) {
+    assertFalse(Files.exists(file(pendingImage)));
+    Semaphore inFlightBytes = (Semaphore) ReflectionTestUtils.getField(postImageUploader, "inFlightBytes");
+    assertEquals(MAX_IN_FLIGHT_BYTES, inFlightBytes.availablePermits());
+  }
+
+  // 게시글 상태를 먼저 쓰고 finally 에서 반환하므로 용량과 임시 파일이 모두 돌아올 때까지 기다린다
+  private void awaitReleased(PendingImage pendingImage) throws InterruptedException {
+    Semaphore inFlightBytes = (Semaphore) ReflectionTestUtils.getField(postImageUploader, "inFlightBytes");
+    long deadline = System.currentTimeMillis() + 5000;
+    while ((Files.exists(file(pendingImage)) || inFlightBytes.availablePermits() != MAX_IN_FLIGHT_BYTES)
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(20);
+    }
+    assertReleased(pendingImage);
+  }
+
+  private void awaitStatus(Long postId, ImageStatus expected) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (expected != imageStatus(postId) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(20);
+    }
+    assertEquals(expected, imageStatus(postId));
+  }
+
+  private static Path file(PendingImage pendingImage) {
+    Path file = (Path) ReflectionTestUtils.getField(pendingImage, "file");
+    assertNotNull(file);
+    return file;
+  }
+
+  private static String hash(PendingImage pendingImage) {
+    return (String) ReflectionTestUtils.getField(pendingImage, "hash");
+  }
+
+  private ImageStatus imageStatus(Long postId) {
+    return ImageStatus.valueOf(jdbcTemplate.queryForObject(
+        "select image_status from post where id = ?", String.class, postId));
+  }
+
+  private String imgUrl(Long postId) {
+    return jdbcTemplate.queryForObject("select img_url from post where id = ?", String.class, postId);
+  }
+
+  private String imageHash(Long postId) {
+    return jdbcTemplate.queryForObject("select image_hash from post where id = ?", String.class, postId);
+  }
+
+  private int refCount(String hash) {
+    return jdbcTemplate.queryForObject("select ref_count from image_blob where hash = ?", Integer.class, hash);
+  }
+}
@@ -0,0 +1,76 @@
+package com.example.intermediate.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class PostSearchIndexTest {
+
+  private PostSearchIndex postSearchIndex;
+
+  @BeforeEach
+  void setUp() {
+    // 트랜잭션 밖에서는 바로 반영
+    postSearchIndex = new PostSearchIndex(null, null);
+    ReflectionTestUtils.setField(postSearchIndex, "compactRatio", 0.3);
+  }
+
+  @Test
+  void tokenizesKoreanAsBigramsAndEnglishAsWords() {
+    assertEquals(List.of("스프", "프링", "boot", "게시", "시판", "2"),
+        SearchTokenizer.tokenize("스프링 Boot, 게시판 2"));
+    assertEquals(List.of("글"), SearchTokenizer.tokenize("글!"));
+  }
+
+  @Test
+  void findsPostsContainingEveryQueryToken() {
+    postSearchIndex.index(1L, "스프링 게시판", "JPA 로 만든 게시판입니다");
+    postSearchIndex.index(2L, "오늘의 일기", "게시판에 처음 글을 씁니다");
+    postSearchIndex.index(3L, "Spring Boot", "hello world");
+
+    // 조사가 붙어 있어도 일치하고, 제목에 있으면 앞선다
+    assertEquals(List.of(1L, 2L), postSearchIndex.search("게시판", 0, 10));
+    assertEquals(List.of(1L), postSearchIndex.search("스프링 게시판", 0, 10));
+    assertEquals(List.of(3L), postSearchIndex.search("SPRING", 0, 10));
+    assertEquals(List.of(), postSearchIndex.search("spring 게시판", 0, 10));
+    assertEquals(List.of(2L), postSearchIndex.search("게시판", 1, 10));
+    assertEquals(List.of(), postSearchIndex.search("   ", 0, 10));
+  }
+
+  @Test
+  void updatesAndRemovesReplacePreviousDocuments() {
+    postSearchIndex.index(1L, "title", "apple");
+    postSearchIndex.index(2L, "title", "banana");
+
+    postSearchIndex.index(1L, "title", "cherry");
+    assertEquals(List.of(), postSearchIndex.search("apple", 0, 10));
+    assertEquals(List.of(1L), postSearchIndex.search("cherry", 0, 10));
+
+    postSearchIndex.remove(2L);
+    assertEquals(List.of(), postSearchIndex.search("banana", 0, 10));
+    assertEquals(List.of(1L), postSearchIndex.search("title", 0, 10));
+  }
+
+  @Test
+  void compactionKeepsLiveDocuments() {
+    List<Long> removed = new ArrayList<>();
+    for (long id = 1; id <= 200; id++) {
+      postSearchIndex.index(id, "post " + id, id % 2 == 0 ? "even" : "odd");
+      if (id % 2 == 0) {
+        removed.add(id);
+      }
+    }
+    // 반을 삭제하면 다시 쓴다
+    postSearchIndex.removeAll(removed);
+    assertEquals(0, ReflectionTestUtils.getField(postSearchIndex, "deletedCount"));
+    assertEquals(100, ReflectionTestUtils.getField(postSearchIndex, "docCount"));
+
+    assertEquals(List.of(), postSearchIndex.search("even", 0, 10));
+    assertEquals(100, postSearchIndex.search("odd", 0, 1000).size());
+    assertEquals(List.of(7L), postSearchIndex.search("post 7", 0, 10));
+  }
+}
@@ -0,0 +1,295 @@
+package com.example.intermediate.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.intermediate.TestFixture;
+import com.example.intermediate.controller.request.PostRequestDto;
+import com.example.intermediate.controller.response.CommentResponseDto;
+import com.example.intermediate.controller.response.PostListPageResponseDto;
+import com.example.intermediate.controller.response.PostResponseDto;
+import com.example.intermediate.controller.response.ResponseDto;
+import com.example.intermediate.domain.Comment;
+import com.example.intermediate.domain.Member;
+import com.example.intermediate.domain.Post;
+import com.example.intermediate.domain.Recomment;
+import com.example.intermediate.repository.CommentRepository;
+import com.example.intermediate.repository.PostRepository;
+import com.example.intermediate.repository.RecommentRepository;
+import com.example.intermediate.shared.ImageStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+class PostServiceTest {
+
+  @Autowired
+  private PostService postService;
+  @Autowired
+  private TestFixture fixture;
+  @Autowired
+  private PostRepository postRepository;
+  @Autowired
+  private CommentRepository commentRepository;
+  @Autowired
+  private RecommentRepository recommentRepository;
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+  @Autowired
+  private PostDetailCache postDetailCache;
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Test
+  void getPostLoadsCommentTreeWithConstantQueries() {
+    Member writer = fixture.saveMember("writer");
+    Post post = fixture.savePost(writer, "title");
+
+    // 댓글 10개, 댓글마다 대댓글 3개 (작성자는 모두 다른 회원)
+    for (int i = 0; i < 10; i++) {
+      Comment comment = commentRepository.save(Comment.builder()
+          .member(fixture.saveMember("comment" + i))
+          .post(post)
+          .content("comment " + i)
+          .build());
+      for (int j = 0; j < 3; j++) {
+        recommentRepository.save(Recomment.builder()
+            .member(fixture.saveMember("reco" + i + "_" + j))
+            .post(post)
+            .comment(comment)
+            .content("recomment " + j)
+            .build());
+      }
+    }
+
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    ResponseDto<?> response = postService.getPost(post.getId());
+
+    // 게시글 + 작성자, 댓글 + 작성자, 대댓글 + 작성자
+    assertEquals(3, statistics.getPrepareStatementCount());
+
+    assertTrue(response.isSuccess());
+    PostResponseDto postResponseDto = (PostResponseDto) response.getData();
+    assertEquals(writer.getNickname(), postResponseDto.getAuthor());
+    assertEquals(10, postResponseDto.getCommentResponseDtoList().size());
+    for (CommentResponseDto commentResponseDto : postResponseDto.getCommentResponseDtoList()) {
+      assertEquals(3, commentResponseDto.getRecommentResponseDtoList().size());
+    }
+  }
+
+  @Test
+  void getPostIsCachedUntilTreeChangeIsCommitted() {
+    Member writer = fixture.saveMember("cacheWriter");
+    Post post = fixture.savePost(writer, "title");
+    Comment comment = commentRepository.save(Comment.builder()
+        .member(writer)
+        .post(post)
+        .content("comment")
+        .build());
+
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    ResponseDto<?> first = postService.getPost(post.getId());
+    statistics.clear();
+    assertSame(first, postService.getPost(post.getId()));
+    assertEquals(0, statistics.getPrepareStatementCount());
+
+    // 커밋 전에는 다른 요청이 이전 응답을 그대로 받는다
+    transactionTemplate.executeWithoutResult(status -> {
+      postDetailCache.evict(comment.getPost().getId());
+      assertSame(first, postService.getPost(post.getId()));
+    });
+
+    ResponseDto<?> rebuilt = postService.getPost(post.getId());
+    assertNotSame(first, rebuilt);
+    assertSame(rebuilt, postService.getPost(post.getId()));
+
+    // 실패 응답은 캐시하지 않는다
+    assertFalse(postService.getPost(-1L).isSuccess());
+    statistics.clear();
+    postService.getPost(-1L);
+    assertEquals(1, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  void uploadResultWaitsForPostUpdate() throws Exception {
+    Post post = pendingImagePost("upload-before-update");
+    MockHttpServletRequest request = fixture.login(post.getMember());
+    try {
+      CompletableFuture<Integer> uploaded = transactionTemplate.execute(status -> {
+        assertTrue(postService.updatePost(post.getId(), new PostRequestDto("edited", "content", null), request, null)
+            .isSuccess());
+        return uploadWhileLocked(post.getId(), "upload-before-update");
+      });
+
+      // 수정으로 업로드 id 가 바뀌었으므로 업로드 결과는 반영되지 않는다 (업로더가 자기 참조를 내린다)
+      assertEquals(0, uploaded.get(10, TimeUnit.SECONDS));
+      assertEquals(ImageStatus.NONE.name(), jdbcTemplate.queryForObject(
+          "select image_status from post where id = ?", String.class, post.getId()));
+      assertEquals(null, jdbcTemplate.queryForObject(
+          "select img_url from post where id = ?", String.class, post.getId()));
+    } finally {
+      SecurityContextHolder.clearContext();
+    }
+  }
+
+  @Test
+  void uploadResultWaitsForPostDelete() throws Exception {
+    Post post = pendingImagePost("upload-before-delete");
+    MockHttpServletRequest request = fixture.login(post.getMember());
+    try {
+      CompletableFuture<Integer> uploaded = transactionTemplate.execute(status -> {
+        assertTrue(postService.deletePost(post.getId(), request).isSuccess());
+        return uploadWhileLocked(post.getId(), "upload-before-delete");
+      });
+
+      assertEquals(0, uploaded.get(10, TimeUnit.SECONDS));
+      assertFalse(postRepository.existsById(post.getId()));
+    } finally {
+      SecurityContextHolder.clearContext();
+    }
+  }
+
+  @Test
+  void lockedReadHoldsBackUploadResult() throws Exception {
+    Post post = pendingImagePost("upload-after-read");
+
+    // 읽은 직후부터 잠겨 있어야 읽은 값(이미지 없음)과 실제 행이 어긋나지 않는다
+    CompletableFuture<Integer> uploaded = transactionTemplate.execute(status -> {
+      postRepository.findByIdForUpdate(post.getId()).orElseThrow();
+      return uploadWhileLocked(post.getId(), "upload-after-read");
+    });
+    assertEquals(1, uploaded.get(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void feedPagesWalkEveryPostOnceIncludingEqualModifiedAt() {
+    // 다른 테스트의 게시글보다 뒤에 오도록 지난 시각, 다섯 개는 같은 시각
+    Member writer = fixture.saveMember("feedWriter");
+    List<Long> expected = new ArrayList<>();
+    LocalDateTime tie = LocalDateTime.of(2000, 1, 2, 0, 0);
+    for (int i = 0; i < 7; i++) {
+      Post post = fixture.savePost(writer, "feed " + i);
+      jdbcTemplate.update("update post set modified_at = ? where id = ?",
+          i < 5 ? tie : tie.minusDays(1), post.getId());
+      expected.add(post.getId());
+    }
+    // modifiedAt 내림차순, 같으면 id 내림차순
+    List<Long> sameTime = new ArrayList<>(expected.subList(0, 5));
+    List<Long> older = new ArrayList<>(expected.subList(5, 7));
+    Collections.reverse(sameTime);
+    Collections.reverse(older);
+    expected = new ArrayList<>(sameTime);
+    expected.addAll(older);
+
+    List<Long> walked = new ArrayList<>();
+    String cursor = null;
+    PostListPageResponseDto page;
+    do {
+      page = (PostListPageResponseDto) postService.getAllPost(cursor, 3).getData();
+      assertTrue(page.getPostList().size() <= 3);
+      page.getPostList().forEach(post -> walked.add(post.getId()));
+      cursor = page.getNextCursor();
+    } while (page.isHasNext());
+
+    // 빠지거나 겹치는 게시글이 없다
+    assertEquals(postRepository.count(), walked.size());
+    assertEquals(walked.size(), new HashSet<>(walked).size());
+    List<Long> ours = walked.stream().filter(expected::contains).collect(Collectors.toList());
+    assertEquals(expected, ours);
+  }
+
+  @Test
+  void lastFeedPageHasNoNextCursor() {
+    fixture.savePost();
+    int total = (int) postRepository.count();
+
+    PostListPageResponseDto page = (PostListPageResponseDto) postService.getAllPost(null, total).getData();
+    assertEquals(total, page.getPostList().size());
+    assertFalse(page.isHasNext());
+    assertNull(page.getNextCursor());
+
+    // 한 건 적게 읽으면 다음 페이지에 마지막 한 건이 남는다
+    page = (PostListPageResponseDto) postService.getAllPost(null, total - 1).getData();
+    assertTrue(page.isHasNext());
+    page = (PostListPageResponseDto) postService.getAllPost(page.getNextCursor(), total - 1).getData();
+    assertEquals(1, page.getPostList().size());
+    assertFalse(page.isHasNext());
+    assertNull(page.getNextCursor());
+  }
+
+  @Test
+  void feedPageSizeIsClampedBetweenOneAndHundred() {
+    Member writer = fixture.saveMember("feedClamp");
+    while (postRepository.count() <= 100) {
+      fixture.savePost(writer, "clamp");
+    }
+
+    PostListPageResponseDto page = (PostListPageResponseDto) postService.getAllPost(null, 0).getData();
+    assertEquals(1, page.getPostList().size());
+    assertTrue(page.isHasNext());
+
+    page = (PostListPageResponseDto) postService.getAllPost(null, 1000).getData();
+    assertEquals(100, page.getPostList().size());
+    assertTrue(page.isHasNext());
+  }
+
+  @Test
+  void malformedFeedCursorIsBadRequest() {
+    String noDelimiter = Base64.getUrlEncoder().encodeToString("2000-01-01T00:00".getBytes(StandardCharsets.UTF_8));
+    String badDate = Base64.getUrlEncoder().encodeToString("yesterday_1".getBytes(StandardCharsets.UTF_8));
+    for (String cursor : List.of("not a cursor!", noDelimiter, badDate)) {
+      ResponseDto<?> responseDto = postService.getAllPost(cursor, 10);
+      assertFalse(responseDto.isSuccess());
+      assertEquals("BAD_REQUEST", objectMapper.valueToTree(responseDto).at("/error/code").asText());
+    }
+  }
+
+  private Post pendingImagePost(String imageUploadId) {
+    Post post = fixture.savePost();
+    jdbcTemplate.update("update post set image_status = 'PENDING', image_upload_id = ? where id = ?",
+        imageUploadId, post.getId());
+    return post;
+  }
+
+  // 수정, 삭제 트랜잭션이 게시글을 잠근 동안에는 업로드 결과 반영이 기다린다
+  private CompletableFuture<Integer> uploadWhileLocked(Long postId, String imageUploadId) {
+    CompletableFuture<Integer> uploaded = CompletableFuture.supplyAsync(() -> postRepository.updateImage(
+        postId, imageUploadId, "b".repeat(64), "https://bucket/image", null, null, ImageStatus.DONE));
+    try {
+      Thread.sleep(300);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    assertFalse(uploaded.isDone());
+    return uploaded;
+  }
+}
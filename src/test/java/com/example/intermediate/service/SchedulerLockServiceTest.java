@@ -0,0 +1,116 @@
+package com.example.intermediate.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.intermediate.IntermediateApplication;
+import com.example.intermediate.repository.SchedulerLockRepository;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+// 같은 H2 DB 를 바라보는 애플리케이션 컨텍스트 두 개로 서버 두 대를 흉내 낸다
+@SpringBootTest
+class SchedulerLockServiceTest {
+
+  @Autowired
+  private SchedulerLockService schedulerLockService;
+  @Autowired
+  private SchedulerLockRepository schedulerLockRepository;
+
+  private ConfigurableApplicationContext otherNode;
+  private SchedulerLockService otherSchedulerLockService;
+
+  @BeforeEach
+  void startOtherNode() {
+    otherNode = new SpringApplicationBuilder(IntermediateApplication.class)
+        .properties("spring.jpa.hibernate.ddl-auto=none", "server.port=0")
+        .run();
+    otherSchedulerLockService = otherNode.getBean(SchedulerLockService.class);
+  }
+
+  @AfterEach
+  void stopOtherNode() {
+    otherNode.close();
+  }
+
+  @Test
+  void onlyOneNodeRunsTheJobAtATime() throws Exception {
+    assertNotEquals(schedulerLockService.getOwner(), otherSchedulerLockService.getOwner());
+
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch finish = new CountDownLatch(1);
+    AtomicInteger runs = new AtomicInteger();
+    ExecutorService executorService = Executors.newSingleThreadExecutor();
+    try {
+      Future<Boolean> first = executorService.submit(() -> schedulerLockService.runLocked("lock-test", () -> {
+        runs.incrementAndGet();
+        started.countDown();
+        await(finish);
+      }));
+      assertTrue(started.await(10, TimeUnit.SECONDS));
+
+      assertFalse(otherSchedulerLockService.runLocked("lock-test", runs::incrementAndGet));
+
+      finish.countDown();
+      assertTrue(first.get(10, TimeUnit.SECONDS));
+    } finally {
+      finish.countDown();
+      executorService.shutdown();
+    }
+    assertEquals(1, runs.get());
+  }
+
+  @Test
+  void finishedJobKeepsLeaseForMinimumHold() throws Exception {
+    ReflectionTestUtils.setField(schedulerLockService, "minHoldSeconds", 2L);
+    try {
+      AtomicInteger runs = new AtomicInteger();
+      assertTrue(schedulerLockService.runLocked("hold-test", runs::incrementAndGet));
+
+      // 조금 늦게 깨어난 다른 서버는 방금 끝난 작업을 다시 실행하지 않는다
+      assertFalse(otherSchedulerLockService.runLocked("hold-test", runs::incrementAndGet));
+      assertEquals(1, runs.get());
+
+      Thread.sleep(2500);
+      assertTrue(otherSchedulerLockService.runLocked("hold-test", runs::incrementAndGet));
+      assertEquals(2, runs.get());
+    } finally {
+      ReflectionTestUtils.setField(schedulerLockService, "minHoldSeconds", 0L);
+    }
+  }
+
+  @Test
+  void expiredLeaseIsTakenOver() throws Exception {
+    // lease 를 잡은 채로 죽은 서버
+    schedulerLockRepository.insert("expire-test", "crashed-node", 1);
+    assertFalse(otherSchedulerLockService.runLocked("expire-test", () -> { }));
+
+    Thread.sleep(1500);
+
+    AtomicInteger runs = new AtomicInteger();
+    assertTrue(otherSchedulerLockService.runLocked("expire-test", runs::incrementAndGet));
+    assertEquals(1, runs.get());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package com.example.intermediate.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.intermediate.domain.Member;
+import com.example.intermediate.domain.UserDetailsImpl;
+import com.example.intermediate.jwt.TokenProvider;
+import com.example.intermediate.repository.MemberRepository;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+@SpringBootTest
+class UserDetailsServiceImplTest {
+
+  @Autowired
+  private UserDetailsServiceImpl userDetailsService;
+  @Autowired
+  private MemberService memberService;
+  @Autowired
+  private TokenProvider tokenProvider;
+  @Autowired
+  private MemberRepository memberRepository;
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @AfterEach
+  void logout() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void cacheHitRunsNoQueriesAndHandsOutSeparateMembers() {
+    Member member = memberRepository.save(Member.builder()
+        .nickname("cachedUser")
+        .password("password")
+        .build());
+
+    statistics.clear();
+    UserDetailsImpl first = (UserDetailsImpl) userDetailsService.loadUserByUsername("cachedUser");
+    assertEquals(1, statistics.getPrepareStatementCount());
+
+    statistics.clear();
+    UserDetailsImpl second = (UserDetailsImpl) userDetailsService.loadUserByUsername("cachedUser");
+    assertEquals(0, statistics.getPrepareStatementCount());
+
+    // 요청마다 다른 Member 인스턴스
+    assertNotSame(first.getMember(), second.getMember());
+    assertEquals(member.getId(), second.getMember().getId());
+    assertEquals("cachedUser", second.getUsername());
+  }
+
+  @Test
+  void logoutEvictsCachedUser() {
+    Member member = memberRepository.save(Member.builder()
+        .nickname("logoutUser")
+        .password("password")
+        .build());
+    String refreshToken = tokenProvider.generateTokenDto(member).getRefreshToken();
+
+    UserDetailsImpl userDetails = (UserDetailsImpl) userDetailsService.loadUserByUsername("logoutUser");
+    SecurityContextHolder.getContext().setAuthentication(
+        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.addHeader("Refresh-Token", refreshToken);
+    assertTrue(memberService.logout(request).isSuccess());
+
+    statistics.clear();
+    userDetailsService.loadUserByUsername("logoutUser");
+    assertEquals(1, statistics.getPrepareStatementCount());
+  }
+}
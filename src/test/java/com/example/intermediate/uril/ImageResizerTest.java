@@ -0,0 +1,144 @@
+package com.example.intermediate.uril;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.intermediate.shared.ImageVariant;
+import com.example.intermediate.uril.ImageResizer.ResizedImage;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class ImageResizerTest {
+
+  private static final int MAX_DECODED_BYTES = 16 * 1024 * 1024;
+
+  @TempDir
+  Path tempDir;
+
+  private ImageResizer imageResizer;
+
+  @BeforeEach
+  void setUp() {
+    imageResizer = new ImageResizer();
+    ReflectionTestUtils.setField(imageResizer, "thumbnailWidth", 200);
+    ReflectionTestUtils.setField(imageResizer, "mediumWidth", 800);
+    ReflectionTestUtils.setField(imageResizer, "maxPixels", 25_000_000L);
+    ReflectionTestUtils.setField(imageResizer, "maxDecodedBytes", MAX_DECODED_BYTES);
+    imageResizer.init();
+  }
+
+  @Test
+  void opaqueImageIsScaledToJpegVariants() throws IOException {
+    Map<ImageVariant, ResizedImage> resized = imageResizer.resize(write(1600, 1200, false, "jpg"));
+
+    assertEquals(2, resized.size());
+    assertVariant(resized.get(ImageVariant.MEDIUM), "image/jpeg", "jpeg", 800, 600);
+    assertVariant(resized.get(ImageVariant.THUMBNAIL), "image/jpeg", "jpeg", 200, 150);
+  }
+
+  @Test
+  void transparentImageKeepsPng() throws IOException {
+    Map<ImageVariant, ResizedImage> resized = imageResizer.resize(write(1000, 500, true, "png"));
+
+    assertVariant(resized.get(ImageVariant.MEDIUM), "image/png", "png", 800, 400);
+    assertVariant(resized.get(ImageVariant.THUMBNAIL), "image/png", "png", 200, 100);
+    // 투명도가 그대로 남는다
+    assertTrue(ImageIO.read(new ByteArrayInputStream(resized.get(ImageVariant.THUMBNAIL).getBytes()))
+        .getColorModel().hasAlpha());
+  }
+
+  @Test
+  void onlyVariantsSmallerThanSourceAreMade() throws IOException {
+    Map<ImageVariant, ResizedImage> resized = imageResizer.resize(write(500, 300, false, "png"));
+
+    assertEquals(1, resized.size());
+    assertFalse(resized.containsKey(ImageVariant.MEDIUM));
+    assertVariant(resized.get(ImageVariant.THUMBNAIL), "image/jpeg", "jpeg", 200, 120);
+  }
+
+  @Test
+  void undecodableOrOversizedImagesAreNotResized() throws IOException {
+    Path text = tempDir.resolve("text.bin");
+    Files.write(text, "not an image".getBytes(StandardCharsets.UTF_8));
+    assertTrue(imageResizer.resize(text).isEmpty());
+
+    ReflectionTestUtils.setField(imageResizer, "maxPixels", 1000L);
+    assertTrue(imageResizer.resize(write(1600, 1200, false, "jpg")).isEmpty());
+    assertEquals(MAX_DECODED_BYTES, decodedBytes().availablePermits());
+  }
+
+  @Test
+  void decodeWaitsForDecodedBytesBudget() throws Exception {
+    Path file = write(1600, 1200, false, "jpg");
+    Semaphore decodedBytes = decodedBytes();
+    // 1600 x 1200 x 4 bytes 가 남지 않도록 예약해 둔다
+    int held = MAX_DECODED_BYTES - 1600 * 1200 * 4 + 1;
+    decodedBytes.acquire(held);
+
+    CompletableFuture<Map<ImageVariant, ResizedImage>> resizing =
+        CompletableFuture.supplyAsync(() -> imageResizer.resize(file));
+    Thread.sleep(300);
+    assertFalse(resizing.isDone());
+
+    decodedBytes.release(held);
+    assertEquals(2, resizing.get(10, TimeUnit.SECONDS).size());
+    assertEquals(MAX_DECODED_BYTES, decodedBytes.availablePermits());
+  }
+
+  private Semaphore decodedBytes() {
+    return (Semaphore) ReflectionTestUtils.getField(imageResizer, "decodedBytes");
+  }
+
+  private Path write(int width, int height, boolean alpha, String format) throws IOException {
+    BufferedImage image = new BufferedImage(width, height,
+        alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+    Graphics2D graphics = image.createGraphics();
+    try {
+      graphics.setColor(alpha ? new Color(255, 0, 0, 128) : Color.BLUE);
+      graphics.fillRect(0, 0, width / 2, height);
+    } finally {
+      graphics.dispose();
+    }
+    Path file = tempDir.resolve(width + "x" + height + "." + format);
+    assertTrue(ImageIO.write(image, format, file.toFile()));
+    return file;
+  }
+
+  private static void assertVariant(ResizedImage resized, String contentType, String formatName,
+      int width, int height) throws IOException {
+    assertNotNull(resized);
+    assertEquals(contentType, resized.getContentType());
+    try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(resized.getBytes()))) {
+      Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(input);
+        assertEquals(formatName, reader.getFormatName().toLowerCase());
+        assertEquals(width, reader.getWidth(0));
+        assertEquals(height, reader.getHeight(0));
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package com.example.intermediate.uril;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.amazonaws.services.s3.AmazonS3Client;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.PutObjectResult;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+// 메모리 안의 S3 대역으로 업로드된 내용을 확인
+class S3UploaderTest {
+
+  private static final long THRESHOLD = 1024;
+  private static final long PART_SIZE = 300;
+
+  private final Map<String, byte[]> bucket = new HashMap<>();
+  private AmazonS3Client amazonS3Client;
+  private S3Uploader s3Uploader;
+
+  @BeforeEach
+  void setUp() throws MalformedURLException {
+    amazonS3Client = mock(AmazonS3Client.class);
+    s3Uploader = new S3Uploader(amazonS3Client);
+    ReflectionTestUtils.setField(s3Uploader, "bucket", "test-bucket");
+    ReflectionTestUtils.setField(s3Uploader, "multipartThreshold", THRESHOLD);
+    ReflectionTestUtils.setField(s3Uploader, "partSize", PART_SIZE);
+
+    when(amazonS3Client.getUrl(anyString(), anyString()))
+        .thenAnswer(invocation -> new URL("https://test-bucket.s3.amazonaws.com/" + invocation.getArgument(1)));
+    when(amazonS3Client.putObject(any(PutObjectRequest.class))).thenAnswer(invocation -> {
+      PutObjectRequest request = invocation.getArgument(0);
+      byte[] bytes = read(request.getInputStream(), request.getMetadata().getContentLength());
+      bucket.put(request.getKey(), bytes);
+      return new PutObjectResult();
+    });
+
+    // 실제 클라이언트처럼 part 크기만큼만 스트림에서 읽는다
+    ByteArrayOutputStream multipart = new ByteArrayOutputStream();
+    InitiateMultipartUploadResult initiated = new InitiateMultipartUploadResult();
+    initiated.setUploadId("upload-id");
+    when(amazonS3Client.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class))).thenReturn(initiated);
+    when(amazonS3Client.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocation -> {
+      UploadPartRequest request = invocation.getArgument(0);
+      multipart.write(read(request.getInputStream(), request.getPartSize()));
+      UploadPartResult result = new UploadPartResult();
+      result.setPartNumber(request.getPartNumber());
+      result.setETag("etag-" + request.getPartNumber());
+      return result;
+    });
+    when(amazonS3Client.completeMultipartUpload(any(CompleteMultipartUploadRequest.class))).thenAnswer(invocation -> {
+      CompleteMultipartUploadRequest request = invocation.getArgument(0);
+      bucket.put(request.getKey(), multipart.toByteArray());
+      return null;
+    });
+  }
+
+  @Test
+  void uploadStreamsSmallFileWithContentLength() throws IOException {
+    byte[] content = randomBytes((int) THRESHOLD);
+    MockMultipartFile file = new MockMultipartFile("image", "cat.png", "image/png", content);
+
+    String url = s3Uploader.upload(file, "images");
+
+    ArgumentCaptor<PutObjectRequest> captor = ArgumentCaptor.forClass(PutObjectRequest.class);
+    verify(amazonS3Client).putObject(captor.capture());
+    PutObjectRequest request = captor.getValue();
+    assertEquals(content.length, request.getMetadata().getContentLength());
+    assertEquals("image/png", request.getMetadata().getContentType());
+    assertTrue(request.getKey().startsWith("images/") && request.getKey().endsWith("cat.png"));
+    assertArrayEquals(content, bucket.get(request.getKey()));
+    assertTrue(url.endsWith(request.getKey()));
+    verify(amazonS3Client, never()).initiateMultipartUpload(any(InitiateMultipartUploadRequest.class));
+  }
+
+  @Test
+  void uploadSwitchesToMultipartAboveThreshold() throws IOException {
+    byte[] content = randomBytes((int) THRESHOLD + 1);
+    MockMultipartFile file = new MockMultipartFile("image", "large.png", "image/png", content);
+
+    s3Uploader.upload(file, "images");
+
+    ArgumentCaptor<CompleteMultipartUploadRequest> captor = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+    verify(amazonS3Client).completeMultipartUpload(captor.capture());
+    assertEquals((content.length + PART_SIZE - 1) / PART_SIZE, captor.getValue().getPartETags().size());
+    assertArrayEquals(content, bucket.get(captor.getValue().getKey()));
+    verify(amazonS3Client, never()).putObject(any(PutObjectRequest.class));
+  }
+
+  private static byte[] read(InputStream inputStream, long length) {
+    try {
+      return inputStream.readNBytes((int) length);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static byte[] randomBytes(int size) {
+    byte[] bytes = new byte[size];
+    new Random(size).nextBytes(bytes);
+    return bytes;
+  }
+}